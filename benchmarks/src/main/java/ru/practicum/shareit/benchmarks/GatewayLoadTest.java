@@ -0,0 +1,103 @@
+package ru.practicum.shareit.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест запущенного шлюза: {@code concurrency} клиентов без пауз отправляют
+ * GET-запросы на адрес, пока не истечёт время. Печатает пропускную способность, число
+ * ошибок и перцентили задержки. Клиент асинхронный, поэтому число одновременных запросов
+ * не ограничено потоками самого теста.
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmarks.GatewayLoadTest \
+ *     http://localhost:8080/bookings 400 30 1
+ * </pre>
+ * Аргументы: адрес, число клиентов, длительность в секундах, X-Sharer-User-Id.
+ */
+public class GatewayLoadTest {
+    private static final int MAX_LATENCY_MS = 60_000;
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 3) {
+            System.err.println("Использование: GatewayLoadTest <url> <concurrency> <seconds> [userId]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args[0]);
+        int concurrency = Integer.parseInt(args[1]);
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[2]));
+        String userId = args.length > 3 ? args[3] : "1";
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", userId)
+                .timeout(Duration.ofMillis(MAX_LATENCY_MS))
+                .GET()
+                .build();
+
+        long[] histogram = new long[MAX_LATENCY_MS + 1];
+        AtomicLong completed = new AtomicLong();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        long deadline = System.nanoTime() + durationNanos;
+        long started = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            send(client, request, deadline, histogram, completed, errors, done);
+        }
+        done.await();
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        System.out.printf("клиентов: %d, запросов: %d, ошибок: %d, за %.1f с%n",
+                concurrency, completed.get(), errors.get(), seconds);
+        System.out.printf("запросов в секунду: %.0f%n", completed.get() / seconds);
+        System.out.printf("задержка, мс: p50=%d p90=%d p99=%d max=%d%n",
+                percentile(histogram, 0.5), percentile(histogram, 0.9),
+                percentile(histogram, 0.99), percentile(histogram, 1.0));
+    }
+
+    private static void send(HttpClient client, HttpRequest request, long deadline, long[] histogram,
+                             AtomicLong completed, AtomicInteger errors, CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+        long start = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, throwable) -> {
+                    if (throwable != null || response.statusCode() >= 500) {
+                        errors.incrementAndGet();
+                    } else {
+                        int latency = (int) Math.min(MAX_LATENCY_MS,
+                                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                        synchronized (histogram) {
+                            histogram[latency]++;
+                        }
+                        completed.incrementAndGet();
+                    }
+                    send(client, request, deadline, histogram, completed, errors, done);
+                });
+    }
+
+    private static long percentile(long[] histogram, double percentile) {
+        long total = Arrays.stream(histogram).sum();
+        long threshold = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int latency = 0; latency < histogram.length; latency++) {
+            seen += histogram[latency];
+            if (seen >= threshold && seen > 0) {
+                return latency;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,175 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.flywaydb.core.Flyway;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Проверка индексов миграции V2 на PostgreSQL: на пустой базе создаёт таблицы (V1), заполняет
+ * их данными из explain/seed.sql, выполняет EXPLAIN (ANALYZE, BUFFERS) запросов репозиториев,
+ * затем добавляет индексы (V2) и повторяет. Печатает время выполнения до и после и верхний
+ * узел плана; с --plans - планы целиком. Заполнение базы занимает около минуты.
+ * <pre>
+ * createdb shareit_explain
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmarks.IndexExplain \
+ *     jdbc:postgresql://localhost:5432/shareit_explain postgres postgres --plans
+ * </pre>
+ * Аргументы: адрес пустой базы, пользователь, пароль, [--plans].
+ * Запросы - SQL, который Hibernate строит для методов репозиториев, с параметрами-литералами;
+ * "сейчас" - 2024-01-01, пользователь 42. Каждый запрос выполняется трижды, берётся лучшее время.
+ */
+public class IndexExplain {
+    private static final int RUNS = 3;
+    private static final String BOOKING_DETAILS = "select b.*, i.*, u.* from bookings b " +
+            "left join items i on i.id = b.item_id left join users u on u.id = b.booker_id ";
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("бронирования пользователя, PAST, страница",
+                BOOKING_DETAILS + "where b.booker_id = 42 and b.end_date < timestamp '2024-01-01' " +
+                        "order by b.start_date desc, b.id desc limit 11");
+        QUERIES.put("бронирования пользователя, страница после курсора",
+                BOOKING_DETAILS + "where b.booker_id = 42 and (b.start_date < timestamp '2023-06-01' " +
+                        "or (b.start_date = timestamp '2023-06-01' and b.id < 1000000)) " +
+                        "order by b.start_date desc, b.id desc limit 10");
+        QUERIES.put("бронирования владельца, REJECTED, страница",
+                BOOKING_DETAILS + "where i.owner_id = 42 and b.status = 'REJECTED' " +
+                        "order by b.start_date desc, b.id desc limit 11");
+        QUERIES.put("последнее бронирование 5 вещей",
+                "select b.* from bookings b where b.item_id in (1, 2, 3, 4, 5) and b.start_date = " +
+                        "(select max(l.start_date) from bookings l where l.item_id = b.item_id " +
+                        "and l.start_date < timestamp '2024-01-01')");
+        QUERIES.put("следующее бронирование 5 вещей",
+                "select b.* from bookings b where b.item_id in (1, 2, 3, 4, 5) " +
+                        "and b.status not in ('REJECTED', 'CANCELED') and b.start_date = " +
+                        "(select min(n.start_date) from bookings n where n.item_id = b.item_id " +
+                        "and n.start_date > timestamp '2024-01-01' and n.status not in ('REJECTED', 'CANCELED'))");
+        QUERIES.put("пересечение с бронированиями вещи",
+                "select count(b.id) > 0 from bookings b where b.item_id = 7 " +
+                        "and b.start_date < timestamp '2024-01-10' and b.end_date > timestamp '2024-01-01' " +
+                        "and b.status in ('APPROVED', 'WAITING')");
+        QUERIES.put("расписание вещи",
+                "select b.* from bookings b where b.item_id = 7");
+        QUERIES.put("вещи владельца, страница",
+                "select i.* from items i where i.owner_id = 42 order by i.id limit 10");
+        QUERIES.put("вещи по 3 запросам",
+                "select i.* from items i where i.request_id in (1, 2, 3)");
+        QUERIES.put("комментарии 3 вещей",
+                "select c.* from comments c where c.item_id in (1, 2, 3) order by c.created desc");
+        QUERIES.put("свои запросы",
+                "select r.* from requests r where r.requestor_id = 42 order by r.created_time desc");
+        QUERIES.put("чужие запросы, страница",
+                "select r.* from requests r where r.requestor_id <> 42 order by r.created_time desc limit 11");
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Использование: IndexExplain <jdbc-url пустой базы> <user> <password> [--plans]");
+            System.exit(1);
+        }
+        String url = args[0];
+        String user = args[1];
+        String password = args[2];
+        boolean plans = args.length > 3 && "--plans".equals(args[3]);
+
+        if (migrate(url, user, password, "1") != 1) {
+            System.err.println("База должна быть пустой: в ней уже есть миграции после V1");
+            System.exit(1);
+        }
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            long started = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(seed());
+            }
+            System.out.printf("данные загружены за %.0f с%n", (System.nanoTime() - started) / 1e9);
+
+            Map<String, Explained> before = explainAll(connection);
+            migrate(url, user, password, "2");
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("analyze");
+            }
+            Map<String, Explained> after = explainAll(connection);
+
+            System.out.printf("%-50s %12s %12s  %s%n", "запрос", "без V2, мс", "с V2, мс", "план с V2");
+            for (String name : QUERIES.keySet()) {
+                System.out.printf("%-50s %12.2f %12.2f  %s%n", name, before.get(name).millis,
+                        after.get(name).millis, after.get(name).plan.get(0).trim());
+            }
+            if (plans) {
+                for (String name : QUERIES.keySet()) {
+                    System.out.printf("%n=== %s%n--- без V2%n%s%n--- с V2%n%s%n", name,
+                            String.join("\n", before.get(name).plan), String.join("\n", after.get(name).plan));
+                }
+            }
+        }
+    }
+
+    // число применённых миграций после migrate до target
+    private static int migrate(String url, String user, String password, String target) {
+        Flyway flyway = Flyway.configure()
+                .dataSource(url, user, password)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .target(target)
+                .load();
+        flyway.migrate();
+        return flyway.info().applied().length;
+    }
+
+    private static String seed() throws IOException {
+        try (InputStream in = IndexExplain.class.getResourceAsStream("/explain/seed.sql")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, Explained> explainAll(Connection connection) throws SQLException {
+        Map<String, Explained> result = new LinkedHashMap<>();
+        for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+            Explained best = null;
+            for (int run = 0; run < RUNS; run++) {
+                Explained explained = explain(connection, query.getValue());
+                if (best == null || explained.millis < best.millis) {
+                    best = explained;
+                }
+            }
+            result.put(query.getKey(), best);
+        }
+        return result;
+    }
+
+    private static Explained explain(Connection connection, String sql) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        double millis = Double.NaN;
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("explain (analyze, buffers) " + sql)) {
+            while (rows.next()) {
+                String line = rows.getString(1);
+                plan.add(line);
+                if (line.startsWith("Execution Time:")) {
+                    millis = Double.parseDouble(line.replaceAll("[^0-9.]", ""));
+                }
+            }
+        }
+        return new Explained(plan, millis);
+    }
+
+    private static final class Explained {
+        private final List<String> plan;
+        private final double millis;
+
+        private Explained(List<String> plan, double millis) {
+            this.plan = plan;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.item.dto.ItemOutcomeInfoDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответа GET /items: список ItemOutcomeInfoDto с бронированиями и отзывами.
+ * ObjectMapper настраивается так же, как в сервере (даты ISO-строками, а не числами).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonBenchmark {
+    @Param({"10", "1000"})
+    private int items;
+
+    @Param({"0", "5"})
+    private int comments;
+
+    private ObjectWriter writer;
+    private List<ItemOutcomeInfoDto> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, ItemOutcomeInfoDto.class));
+        LocalDateTime now = LocalDateTime.now();
+        UserDto owner = new UserDto(1L, "owner@mail.ru", "Владелец");
+        page = new ArrayList<>(items);
+        for (long i = 1; i <= items; i++) {
+            List<ItemOutcomeInfoDto.CommentDto> itemComments = new ArrayList<>(comments);
+            for (long j = 1; j <= comments; j++) {
+                itemComments.add(new ItemOutcomeInfoDto.CommentDto(j, "Отличная дрель", "Арендатор", now.minusDays(j)));
+            }
+            page.add(new ItemOutcomeInfoDto(i, "Дрель " + i, "Аккумуляторная дрель " + i, true, owner, null,
+                    new ItemOutcomeInfoDto.BookingDto(2 * i, 2L, now.minusDays(3), now.minusDays(1)),
+                    new ItemOutcomeInfoDto.BookingDto(2 * i + 1, 2L, now.plusDays(1), now.plusDays(3)),
+                    itemComments));
+        }
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
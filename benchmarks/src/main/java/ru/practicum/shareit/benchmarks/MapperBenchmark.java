@@ -0,0 +1,104 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
+import ru.practicum.shareit.item.dto.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemOutcomeInfoDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование сущностей в DTO так, как это делают контроллеры: список вещей владельца
+ * с последним и ближайшим бронированием и отзывами, список бронирований, список отзывов.
+ * На каждую вещь приходится по два бронирования и один отзыв.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "1000", "100000"})
+    private int bookings;
+
+    private List<Item> items;
+    private List<Booking> bookingList;
+    private List<Comment> comments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = new User(1L, "owner@mail.ru", "Владелец");
+        User booker = new User(2L, "booker@mail.ru", "Арендатор");
+        ItemRequest request = new ItemRequest(1L, "Нужна дрель", booker, now.minusDays(30));
+        int itemCount = Math.max(1, bookings / 2);
+        items = new ArrayList<>(itemCount);
+        bookingList = new ArrayList<>(bookings);
+        comments = new ArrayList<>(itemCount);
+        for (long i = 1; i <= itemCount; i++) {
+            Item item = new Item(i, "Дрель " + i, "Аккумуляторная дрель " + i,
+                    ru.practicum.shareit.item.model.Status.AVAILABLE, owner, i % 2 == 0 ? request : null);
+            items.add(item);
+            comments.add(new Comment(i, "Отличная дрель", item, booker, now.minusDays(1)));
+        }
+        for (int i = 0; i < bookings; i++) {
+            Item item = items.get(i / 2 % itemCount);
+            LocalDateTime start = i % 2 == 0 ? now.minusDays(3) : now.plusDays(1);
+            bookingList.add(new Booking((long) i + 1, start, start.plusDays(2), item, booker, Status.APPROVED));
+        }
+    }
+
+    @Benchmark
+    public List<ItemOutcomeInfoDto> itemInfoDto() {
+        List<ItemOutcomeInfoDto> result = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Booking last = 2 * i < bookingList.size() ? bookingList.get(2 * i) : null;
+            Booking next = 2 * i + 1 < bookingList.size() ? bookingList.get(2 * i + 1) : null;
+            List<ItemOutcomeInfoDto.CommentDto> itemComments = new ArrayList<>(1);
+            itemComments.add(CommentMapper.toCommentDto(comments.get(i)));
+            result.add(ItemMapper.toItemInfoDto(items.get(i), last, next, itemComments));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<BookingOutcomeDto> bookingDto() {
+        List<BookingOutcomeDto> result = new ArrayList<>(bookingList.size());
+        for (Booking booking : bookingList) {
+            result.add(BookingMapper.toBookingDto(booking));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemOutcomeInfoDto.CommentDto> commentDto() {
+        List<ItemOutcomeInfoDto.CommentDto> result = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            result.add(CommentMapper.toCommentDto(comment));
+        }
+        return result;
+    }
+}
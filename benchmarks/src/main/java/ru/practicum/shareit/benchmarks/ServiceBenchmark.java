@@ -0,0 +1,140 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.SearchStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.CommentService;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Методы сервисов на встроенной H2 со схемой из миграций Flyway. Контекст сервера
+ * поднимается без веб-слоя один раз на прогон; у владельца {@code items} вещей,
+ * на каждую вещь по {@code bookingsPerItem} бронирований и по отзыву.
+ * Время включает транзакцию, SQL и маппинг результата Hibernate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"100", "1000"})
+    private int items;
+
+    @Param({"10"})
+    private int bookingsPerItem;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private CommentService commentService;
+    private Long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = SpringApplication.run(ShareItApp.class,
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.driverClassName=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--shareit.item.search.engine=like",
+                "--logging.level.root=WARN");
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        commentService = context.getBean(CommentService.class);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        UserRepository users = context.getBean(UserRepository.class);
+        User owner = users.save(new User(null, "owner@mail.ru", "Владелец"));
+        User booker = users.save(new User(null, "booker@mail.ru", "Арендатор"));
+        ownerId = owner.getId();
+
+        List<Item> saved = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            saved.add(new Item(null, "Дрель " + i, "Аккумуляторная дрель " + i,
+                    ru.practicum.shareit.item.model.Status.AVAILABLE, owner, null));
+        }
+        saved = context.getBean(ItemRepository.class).saveAll(saved);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(items * bookingsPerItem);
+        List<Comment> comments = new ArrayList<>(items);
+        for (Item item : saved) {
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime start = now.plusDays(3L * (j - bookingsPerItem / 2));
+                bookings.add(new Booking(null, start, start.plusDays(2), item, booker, Status.APPROVED));
+            }
+            comments.add(new Comment(null, "Отличная дрель", item, booker, now.minusDays(1)));
+        }
+        context.getBean(BookingRepository.class).saveAll(bookings);
+        context.getBean(CommentRepository.class).saveAll(comments);
+    }
+
+    /**
+     * Страница GET /items без сериализации: вещи, последние и ближайшие бронирования, отзывы.
+     */
+    @Benchmark
+    public void ownerItemsPage(Blackhole blackhole) {
+        List<Long> itemIds = itemService.getItems(ownerId, 0, PAGE_SIZE).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        blackhole.consume(itemIds);
+        blackhole.consume(bookingService.getLastBookings(itemIds));
+        blackhole.consume(bookingService.getNextBookings(itemIds));
+        blackhole.consume(commentService.getCommentsForItems(itemIds));
+    }
+
+    @Benchmark
+    public List<Booking> ownerBookingsPage() {
+        return bookingService.getBookingsByOwner(ownerId, SearchStatus.ALL, 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Item> searchItems() {
+        return itemService.searchItem("дрель", null, null, 0, PAGE_SIZE);
+    }
+}
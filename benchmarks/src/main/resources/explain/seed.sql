@@ -0,0 +1,41 @@
+-- Данные для IndexExplain: 20 000 пользователей, 5 000 запросов, 100 000 вещей, 2 000 000 бронирований
+-- и 200 000 комментариев. Даты - вокруг 2024-01-01, "текущего момента" в проверяемых запросах.
+-- setseed делает random() воспроизводимым: при каждом запуске получаются те же строки.
+select setseed(0.42);
+
+insert into users (name, email)
+select 'user' || g, 'user' || g || '@mail.ru'
+from generate_series(1, 20000) g;
+
+insert into requests (description, requestor_id, created_time)
+select 'request ' || g,
+       1 + floor(random() * 20000)::int,
+       timestamp '2022-01-01' + random() * interval '730 days'
+from generate_series(1, 5000) g;
+
+-- каждая десятая вещь - ответ на запрос, каждая десятая недоступна
+insert into items (name, description, is_available, owner_id, request_id)
+select 'item ' || g,
+       'description of item ' || g,
+       case when random() < 0.9 then 'AVAILABLE' else 'UNAVAILABLE' end,
+       1 + floor(random() * 20000)::int,
+       case when random() < 0.1 then 1 + floor(random() * 5000)::int end
+from generate_series(1, 100000) g;
+
+-- бронирования от 1 до 14 дней с 2022 по 2025 год, статусы поровну
+insert into bookings (start_date, end_date, item_id, booker_id, status)
+select start_date, start_date + (1 + floor(random() * 14)) * interval '1 day', item_id, booker_id, status
+from (select timestamp '2022-01-01' + random() * interval '1460 days' as start_date,
+             1 + floor(random() * 100000)::int as item_id,
+             1 + floor(random() * 20000)::int as booker_id,
+             (array ['WAITING', 'APPROVED', 'REJECTED', 'CANCELED'])[1 + floor(random() * 4)::int] as status
+      from generate_series(1, 2000000)) as generated;
+
+insert into comments (text, item_id, author_id, created)
+select 'comment ' || g,
+       1 + floor(random() * 100000)::int,
+       1 + floor(random() * 20000)::int,
+       timestamp '2022-01-01' + random() * interval '730 days'
+from generate_series(1, 200000) g;
+
+analyze;
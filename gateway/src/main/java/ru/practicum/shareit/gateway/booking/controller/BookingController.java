@@ -5,6 +5,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -12,11 +14,15 @@ import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.booking.controller.dto.BookingIncomeDto;
 import ru.practicum.shareit.gateway.booking.controller.dto.BookingOutcomeDto;
 import ru.practicum.shareit.gateway.booking.controller.dto.SearchStatus;
+import ru.practicum.shareit.gateway.config.ConditionalRequests;
+import ru.practicum.shareit.gateway.config.ResponseCache;
+import ru.practicum.shareit.gateway.exception.ConflictException;
 import ru.practicum.shareit.gateway.exception.DataNotFoundException;
 import ru.practicum.shareit.gateway.exception.ValidationException;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -25,6 +31,7 @@ import java.util.List;
 @Validated
 public class BookingController {
     private final WebClient webClient;
+    private final ResponseCache responseCache;
     private static final String API_PREFIX = "/bookings";
     private static final String API_PATH = "/{bookingId}";
 
@@ -43,7 +50,10 @@ public class BookingController {
                         clientResponse -> Mono.error(new ValidationException("Невалидные данные запроса")))
                 .onStatus(httpStatus -> httpStatus.equals(HttpStatus.NOT_FOUND),
                         clientResponse -> Mono.error(new DataNotFoundException("Бронирование не найдено")))
-                .bodyToMono(BookingOutcomeDto.class);
+                .onStatus(httpStatus -> httpStatus.equals(HttpStatus.CONFLICT),
+                        clientResponse -> Mono.error(new ConflictException("Вещь уже забронирована на это время")))
+                .bodyToMono(BookingOutcomeDto.class)
+                .doFinally(signal -> evictItem(dto.getItemId()));
     }
 
     @PatchMapping("/{bookingId}")
@@ -66,27 +76,33 @@ public class BookingController {
                         clientResponse -> Mono.error(new DataNotFoundException("Бронирование не найдено")))
                 .onStatus(httpStatus -> httpStatus.equals(HttpStatus.BAD_REQUEST),
                         clientResponse -> Mono.error(new ValidationException("Невалидные данные запроса")))
-                .bodyToMono(BookingOutcomeDto.class);
+                .bodyToMono(BookingOutcomeDto.class)
+                .doOnNext(booking -> evictItem(booking.getItem().getId()));
     }
 
     @GetMapping("/{bookingId}")
-    public Mono<BookingOutcomeDto> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @PathVariable("bookingId") long bookingId) {
+    public Mono<ResponseEntity<BookingOutcomeDto>> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @PathVariable("bookingId") long bookingId,
+                                            ServerHttpRequest request) {
         log.info("Получен запрос на получение информации о бронировании с ID={}", bookingId);
         return webClient.get()
                 .uri(API_PREFIX + API_PATH, bookingId)
                 .header("X-Sharer-User-Id", String.valueOf(userId))
+                .headers(ConditionalRequests.ifNoneMatch(request))
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError,
                         clientResponse -> Mono.error(new DataNotFoundException("Бронирование не найдено")))
-                .bodyToMono(BookingOutcomeDto.class);
+                .toEntity(BookingOutcomeDto.class)
+                .map(ConditionalRequests::withEtag);
     }
 
     @GetMapping()
-    public List<BookingOutcomeDto> getBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<List<BookingOutcomeDto>>> getBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam (name = "state", defaultValue = "ALL") String stateParam,
                                                      @RequestParam(name = "from", defaultValue = "0") int from,
-                                                     @RequestParam(name = "size", defaultValue = "10") int size) {
+                                                     @RequestParam(name = "size", defaultValue = "10") int size,
+                                                     @RequestParam(name = "after", required = false) String after,
+                                                     ServerHttpRequest request) {
         log.info("Получен запрос на получение " +
                 "{} бронирований на странице {} пользователя с ID={} с параметром STATE={}", size, from, userId, stateParam);
         try {
@@ -101,20 +117,27 @@ public class BookingController {
                 .uri(uriBuilder -> uriBuilder.path(API_PREFIX)
                         .queryParam("state", stateParam)
                         .queryParam("from", from)
-                        .queryParam("size", size).build())
+                        .queryParam("size", size)
+                        .queryParamIfPresent("after", Optional.ofNullable(after)).build())
                 .header("X-Sharer-User-Id", String.valueOf(userId))
+                .headers(ConditionalRequests.ifNoneMatch(request))
                 .retrieve()
+                .onStatus(httpStatus -> httpStatus.equals(HttpStatus.BAD_REQUEST),
+                        clientResponse -> Mono.error(new ValidationException("Неверные параметры запроса")))
                 .onStatus(HttpStatus::is4xxClientError,
                         clientResponse -> Mono.error(new DataNotFoundException("Бронирование не найдено")))
-                .bodyToMono(new ParameterizedTypeReference<List<BookingOutcomeDto>>() {
-                }).block();
+                .toEntity(new ParameterizedTypeReference<List<BookingOutcomeDto>>() {
+                })
+                .map(ConditionalRequests::withEtag);
     }
 
     @GetMapping("/owner")
-    public Mono<List<BookingOutcomeDto>> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<List<BookingOutcomeDto>>> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam (name = "state", defaultValue = "ALL") String stateParam,
                                                       @RequestParam(name = "from", defaultValue = "0") int from,
-                                                      @RequestParam(name = "size", defaultValue = "10") int size) {
+                                                      @RequestParam(name = "size", defaultValue = "10") int size,
+                                                      @RequestParam(name = "after", required = false) String after,
+                                                      ServerHttpRequest request) {
         log.info("Получен запрос на получение " +
                 "{} бронирований на странице {} владельцем вещи с ID={} с параметром STATE={}",size, from, userId, stateParam);
         try {
@@ -129,12 +152,25 @@ public class BookingController {
                 .uri(uriBuilder -> uriBuilder.path(API_PREFIX + "/owner")
                         .queryParam("state", stateParam)
                         .queryParam("from", from)
-                        .queryParam("size", size).build())
+                        .queryParam("size", size)
+                        .queryParamIfPresent("after", Optional.ofNullable(after)).build())
                 .header("X-Sharer-User-Id", String.valueOf(userId))
+                .headers(ConditionalRequests.ifNoneMatch(request))
                 .retrieve()
+                .onStatus(httpStatus -> httpStatus.equals(HttpStatus.BAD_REQUEST),
+                        clientResponse -> Mono.error(new ValidationException("Неверные параметры запроса")))
                 .onStatus(HttpStatus::is4xxClientError,
                         clientResponse -> Mono.error(new DataNotFoundException("Бронирование не найдено")))
-                .bodyToMono(new ParameterizedTypeReference<>() {
-                });
+                .toEntity(new ParameterizedTypeReference<List<BookingOutcomeDto>>() {
+                })
+                .map(ConditionalRequests::withEtag);
+    }
+
+    /**
+     * Бронирования меняют последнее и следующее бронирование вещи и результаты поиска
+     * свободных вещей.
+     */
+    private void evictItem(Long itemId) {
+        responseCache.evict("/items/" + itemId, "/items/search");
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.gateway.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfiguration {
+    @Bean
+    public ResponseCache responseCache(MeterRegistry registry,
+                                       @Value("${shareit-gateway.cache.maximum-size:10000}") long maximumSize,
+                                       @Value("${shareit-gateway.cache.expire-after-write:30s}") Duration expireAfterWrite) {
+        return new ResponseCache(registry, maximumSize, expireAfterWrite);
+    }
+}
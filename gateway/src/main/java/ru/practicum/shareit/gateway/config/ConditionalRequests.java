@@ -0,0 +1,75 @@
+package ru.practicum.shareit.gateway.config;
+
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Условные GET-запросы через шлюз. ETag ответа сервера передаётся клиенту; если он совпадает
+ * с If-None-Match клиента, WebFlux сам отвечает 304 без тела. Для некэшируемых ответов по
+ * HTTP/1.1 If-None-Match клиента уходит на сервер, и тот не передаёт тело, которое клиенту
+ * не нужно.
+ */
+public final class ConditionalRequests {
+    private ConditionalRequests() {
+    }
+
+    public static Consumer<HttpHeaders> ifNoneMatch(ServerHttpRequest request) {
+        return headers -> {
+            List<String> etags = request.getHeaders().getIfNoneMatch();
+            if (!etags.isEmpty()) {
+                headers.setIfNoneMatch(etags);
+            }
+        };
+    }
+
+    /**
+     * Tomcat после ответа 304 по h2c перестаёт обслуживать соединение, и следующие запросы
+     * по нему завершаются ошибкой. Поэтому при h2c If-None-Match на сервер не передаётся:
+     * сервер отвечает 200 с ETag, а 304 клиенту отдаёт сам шлюз.
+     */
+    public static ExchangeFilterFunction withoutIfNoneMatch() {
+        return (request, next) -> next.exchange(ClientRequest.from(request)
+                .headers(headers -> headers.remove(HttpHeaders.IF_NONE_MATCH))
+                .build());
+    }
+
+    /**
+     * Ответ 304 приходит без Content-Type и может содержать пустой буфер (кадр DATA в h2c).
+     * Без тела и с типом JSON он читается как отсутствующее значение, а не как ошибка.
+     */
+    public static ExchangeFilterFunction notModifiedAsEmptyJson() {
+        return ExchangeFilterFunction.ofResponseProcessor(response -> {
+            if (response.statusCode() != HttpStatus.NOT_MODIFIED) {
+                return Mono.just(response);
+            }
+            return Mono.just(response.mutate()
+                    .headers(headers -> headers.setContentType(MediaType.APPLICATION_JSON))
+                    .body(body -> body.doOnNext(DataBufferUtils::release).thenMany(Flux.empty()))
+                    .build());
+        });
+    }
+
+    /**
+     * Статус, тело и ETag ответа сервера; остальные заголовки (длина, кодировка передачи)
+     * к телу, сериализованному шлюзом заново, не относятся.
+     */
+    public static <T> ResponseEntity<T> withEtag(ResponseEntity<T> response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(response.getStatusCode());
+        String etag = response.getHeaders().getETag();
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        return builder.body(response.getBody());
+    }
+}
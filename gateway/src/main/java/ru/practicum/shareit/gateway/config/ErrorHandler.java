@@ -5,9 +5,12 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.gateway.exception.ConflictException;
 import ru.practicum.shareit.gateway.exception.DataNotFoundException;
 import ru.practicum.shareit.gateway.exception.ValidationException;
 
+import javax.validation.ConstraintViolationException;
+
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
@@ -20,6 +23,15 @@ public class ErrorHandler {
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidEmail(final ConstraintViolationException e) {
+        log.info("Ошибка валидации");
+        return new ErrorResponse(
+                "Ошибка валидации", e.getMessage()
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleInvalidEmail(final DataNotFoundException e) {
@@ -28,4 +40,13 @@ public class ErrorHandler {
                 "Ошибка валидации", e.getMessage()
         );
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflict(final ConflictException e) {
+        log.info("Конфликт данных");
+        return new ErrorResponse(
+                "Конфликт данных", e.getMessage()
+        );
+    }
 }
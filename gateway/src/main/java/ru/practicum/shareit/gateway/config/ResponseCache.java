@@ -0,0 +1,182 @@
+package ru.practicum.shareit.gateway.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Кэш ответов сервера на GET-запросы. Ключ - путь, строка запроса и X-Sharer-User-Id:
+ * владелец и другие пользователи видят одну и ту же вещь по-разному.
+ * Записи вытесняются по размеру (W-TinyLFU) и сроку жизни; изменения, прошедшие через
+ * этот шлюз, удаляют записи затронутых путей сразу, изменения через другие экземпляры
+ * становятся видны не позже чем через срок жизни. Ключи записей проиндексированы по пути,
+ * поэтому удаление стоит O(число записей пути), а не O(размер кэша).
+ * <p>
+ * Одинаковые запросы, пришедшие, пока ответ ещё загружается, не идут на сервер:
+ * они получают результат уже начатой загрузки (single-flight).
+ */
+public class ResponseCache {
+    public static final String CACHE_NAME = "gateway.responses";
+
+    private final Cache<String, Object> responses;
+    private final Map<String, Set<String>> keysByPath = new ConcurrentHashMap<>();
+    private final Map<String, Mono<Object>> loading = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private long generation;
+
+    public ResponseCache(MeterRegistry registry, long maximumSize, Duration expireAfterWrite) {
+        this(registry, maximumSize, expireAfterWrite, ForkJoinPool.commonPool());
+    }
+
+    // executor - где Caffeine выполняет вытеснение; тестам нужно вытеснение в том же потоке
+    ResponseCache(MeterRegistry registry, long maximumSize, Duration expireAfterWrite, Executor executor) {
+        this.responses = Caffeine.newBuilder()
+                .executor(executor)
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                // вызывается атомарно с вытеснением записи по размеру или сроку жизни
+                .evictionListener((String key, Object response, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME);
+        this.coalesced = Counter.builder("shareit.gateway.coalesced")
+                .description("Запросы, получившие ответ уже начатой загрузки")
+                .register(registry);
+    }
+
+    public static String key(ServerHttpRequest request, Object userId) {
+        String query = request.getURI().getRawQuery();
+        return request.getURI().getRawPath() + "?" + (query != null ? query : "") + "#" + userId;
+    }
+
+    private static String path(String key) {
+        return key.substring(0, key.indexOf('?'));
+    }
+
+    public <T> Mono<T> get(String key, Supplier<Mono<T>> loader) {
+        return get(key, loader, response -> true);
+    }
+
+    /**
+     * Ответ из кэша, уже начатой загрузки или от сервера. Ответ, загрузка которого началась
+     * до удаления записей ({@link #evict}), в кэш не попадает - он мог прочитать старые данные.
+     * Загрузка отменяется, только если от неё отказались все ожидающие её запросы.
+     * Ответ, для которого cacheable ложно, получают только ожидающие этой загрузки запросы.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> get(String key, Supplier<Mono<T>> loader, Predicate<? super T> cacheable) {
+        return Mono.defer(() -> {
+            T cached = (T) responses.getIfPresent(key);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            Mono<Object> inFlight = loading.get(key);
+            if (inFlight == null) {
+                Mono<Object> started = load(key, loader, (Predicate<Object>) cacheable);
+                inFlight = loading.putIfAbsent(key, started);
+                if (inFlight == null) {
+                    return (Mono<T>) started;
+                }
+            }
+            coalesced.increment();
+            return (Mono<T>) inFlight;
+        });
+    }
+
+    private Mono<Object> load(String key, Supplier<? extends Mono<?>> loader, Predicate<Object> cacheable) {
+        long loadedAt = generation();
+        AtomicReference<Mono<Object>> self = new AtomicReference<>();
+        // загрузка убирается из loading до того, как ответ получат ожидающие его запросы:
+        // пришедший после этого запрос возьмёт ответ из кэша или загрузит заново,
+        // а не подпишется на уже завершённую загрузку
+        Mono<Object> load = Mono.defer(loader)
+                .cast(Object.class)
+                .doOnNext(response -> {
+                    if (cacheable.test(response)) {
+                        put(key, response, loadedAt);
+                    }
+                    loading.remove(key, self.get());
+                })
+                .doOnTerminate(() -> loading.remove(key, self.get()))
+                .doOnCancel(() -> loading.remove(key, self.get()))
+                .share();
+        self.set(load);
+        return load;
+    }
+
+    /**
+     * Удаляет записи с одним из путей (с любой строкой запроса и для любого пользователя):
+     * "/items/1" не затрагивает "/items/12".
+     */
+    public synchronized void evict(String... paths) {
+        List<String> evicted = Arrays.asList(paths);
+        for (String path : paths) {
+            Set<String> keys = keysByPath.remove(path);
+            if (keys != null) {
+                responses.invalidateAll(keys);
+            }
+        }
+        // в loading только загрузки, которые выполняются сейчас
+        loading.keySet().removeIf(key -> evicted.contains(path(key)));
+        generation++;
+    }
+
+    public synchronized void evictAll() {
+        responses.invalidateAll();
+        keysByPath.clear();
+        loading.clear();
+        generation++;
+    }
+
+    boolean isLoading(String key) {
+        return loading.containsKey(key);
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void put(String key, Object response, long loadedAt) {
+        if (generation == loadedAt) {
+            // индекс меняется внутри compute: вытеснение этого же ключа (и unindex) не может
+            // пройти между записью в кэш и в индекс
+            responses.asMap().compute(key, (cached, previous) -> {
+                keysByPath.compute(path(key), (path, keys) -> {
+                    Set<String> indexed = keys != null ? keys : new HashSet<>();
+                    indexed.add(key);
+                    return indexed;
+                });
+                return response;
+            });
+        }
+    }
+
+    private void unindex(String key) {
+        keysByPath.computeIfPresent(path(key), (path, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    int indexedKeys() {
+        return keysByPath.values().stream().mapToInt(Set::size).sum();
+    }
+}
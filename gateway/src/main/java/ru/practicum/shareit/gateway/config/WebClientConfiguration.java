@@ -1,41 +1,74 @@
 package ru.practicum.shareit.gateway.config;
 
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
-import reactor.netty.tcp.TcpClient;
+import reactor.netty.resources.ConnectionProvider;
 
-import java.util.concurrent.TimeUnit;
+import java.time.Duration;
 
 @Configuration
 public class WebClientConfiguration {
     @Value("${shareit-server.url}")
     private String baseUrl;
-    public static final int TIMEOUT = 1000;
 
+    /**
+     * Пул соединений с сервером. Запрос, не получивший соединение за pending-acquire-timeout,
+     * или не поместившийся в очередь ожидания, завершается ошибкой. Метрики пула
+     * (reactor.netty.connection.provider.*) публикуются через actuator.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(
+            @Value("${shareit-server.pool.max-connections:500}") int maxConnections,
+            @Value("${shareit-server.pool.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+            @Value("${shareit-server.pool.pending-acquire-timeout:5s}") Duration pendingAcquireTimeout,
+            @Value("${shareit-server.pool.max-idle-time:30s}") Duration maxIdleTime,
+            @Value("${shareit-server.pool.evict-in-background:60s}") Duration evictInBackground,
+            @Value("${shareit-server.pool.lifo:false}") boolean lifo) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true);
+        return (lifo ? builder.lifo() : builder.fifo()).build();
+    }
+
+    /**
+     * Таймаут ответа задаётся на запрос, а не обработчиками чтения на соединении: при h2c
+     * одно соединение обслуживает много запросов и может простаивать между ними.
+     * Ответ сервера декодируется с тем же пределом размера, что и запросы к шлюзу (spring.codec.max-in-memory-size).
+     */
     @Bean
-    public WebClient webClientWithTimeout() {
-        final var tcpClient = TcpClient
-                .create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, TIMEOUT)
-                .doOnConnected(connection -> {
-                    connection.addHandlerLast(new ReadTimeoutHandler(TIMEOUT, TimeUnit.MILLISECONDS));
-                    connection.addHandlerLast(new WriteTimeoutHandler(TIMEOUT, TimeUnit.MILLISECONDS));
-                });
-
-        return WebClient.builder()
+    public WebClient webClientWithTimeout(ConnectionProvider shareItServerConnectionProvider,
+                                          @Value("${shareit-server.connect-timeout:1s}") Duration connectTimeout,
+                                          @Value("${shareit-server.response-timeout:1s}") Duration responseTimeout,
+                                          @Value("${shareit-server.h2c:false}") boolean h2c,
+                                          @Value("${spring.codec.max-in-memory-size:256KB}") DataSize maxInMemorySize) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout)
+                .protocol(h2c ? HttpProtocol.H2C : HttpProtocol.HTTP11);
+
+        WebClient.Builder builder = WebClient.builder()
                 .baseUrl(baseUrl)
-                .clientConnector(new ReactorClientHttpConnector(HttpClient.from(tcpClient)))
-                .build();
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize((int) maxInMemorySize.toBytes()))
+                .filter(ConditionalRequests.notModifiedAsEmptyJson());
+        if (h2c) {
+            builder.filter(ConditionalRequests.withoutIfNoneMatch());
+        }
+        return builder.build();
     }
 
     @ExceptionHandler(Exception.class)
@@ -43,4 +76,4 @@ public class WebClientConfiguration {
         return ResponseEntity.status(HttpStatus.I_AM_A_TEAPOT.value()).build();
     }
 
-}
\ No newline at end of file
+}
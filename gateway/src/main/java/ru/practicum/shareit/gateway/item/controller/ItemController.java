@@ -3,20 +3,28 @@ package ru.practicum.shareit.gateway.item.controller;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.config.ConditionalRequests;
+import ru.practicum.shareit.gateway.config.ResponseCache;
 import ru.practicum.shareit.gateway.exception.DataNotFoundException;
 import ru.practicum.shareit.gateway.exception.ValidationException;
+import ru.practicum.shareit.gateway.item.controller.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.gateway.item.controller.dto.ItemIncomeDto;
 import ru.practicum.shareit.gateway.item.controller.dto.ItemOutcomeDto;
 import ru.practicum.shareit.gateway.item.controller.dto.ItemOutcomeInfoDto;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -25,13 +33,18 @@ import java.util.List;
 @Validated
 public class ItemController {
     private final WebClient webClient;
+    private final ResponseCache responseCache;
     private static final String API_PREFIX = "/items";
     private static final String API_PATH = "/{itemId}";
+    private static final String SEARCH_CACHE = API_PREFIX + "/search";
+    private static final String REQUESTS_CACHE = "/requests/all";
+    private static final int BATCH_LIMIT = 10_000;
 
     @GetMapping
-    public Mono<List<ItemOutcomeInfoDto>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<List<ItemOutcomeInfoDto>>> get(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestParam(name = "from", defaultValue = "0") int from,
-                                        @RequestParam(name = "size", defaultValue = "10") int size) {
+                                        @RequestParam(name = "size", defaultValue = "10") int size,
+                                        ServerHttpRequest request) {
         log.info("Получен запрос - показать список вещей пользователя '{}' по {} элементов на странице {}", userId, size, from);
         if ((from < 0) || (size < 1)) {
             throw new ValidationException("Неверные параметры запроса");
@@ -41,9 +54,11 @@ public class ItemController {
                         .queryParam("from", from)
                         .queryParam("size", size).build())
                 .header("X-Sharer-User-Id", String.valueOf(userId))
+                .headers(ConditionalRequests.ifNoneMatch(request))
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<>() {
-                });
+                .toEntity(new ParameterizedTypeReference<List<ItemOutcomeInfoDto>>() {
+                })
+                .map(ConditionalRequests::withEtag);
     }
 
     @PostMapping
@@ -58,7 +73,28 @@ public class ItemController {
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError,
                         clientResponse -> Mono.error(new DataNotFoundException("Итем не найден")))
-                .bodyToMono(ItemOutcomeDto.class);
+                .bodyToMono(ItemOutcomeDto.class)
+                .doFinally(signal -> responseCache.evict(SEARCH_CACHE, REQUESTS_CACHE));
+    }
+
+    @PostMapping("/batch")
+    public Mono<List<ItemOutcomeDto>> addBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestBody List<@Valid ItemIncomeDto> dto) {
+        log.info("Получен запрос на добавление {} итемов пользователю '{}'", dto.size(), userId);
+        if (dto.isEmpty() || dto.size() > BATCH_LIMIT) {
+            throw new ValidationException("В одном запросе можно добавить от 1 до " + BATCH_LIMIT + " вещей");
+        }
+        return webClient.post()
+                .uri(API_PREFIX + "/batch")
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .retrieve()
+                .onStatus(HttpStatus::is4xxClientError,
+                        clientResponse -> Mono.error(new DataNotFoundException("Пользователь или запрос не найден")))
+                .bodyToMono(new ParameterizedTypeReference<List<ItemOutcomeDto>>() {
+                })
+                .doFinally(signal -> responseCache.evict(SEARCH_CACHE, REQUESTS_CACHE));
     }
 
     @PatchMapping("/{itemId}")
@@ -74,53 +110,103 @@ public class ItemController {
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError,
                         clientResponse -> Mono.error(new DataNotFoundException("Итем не найден")))
-                .bodyToMono(ItemOutcomeDto.class);
+                .bodyToMono(ItemOutcomeDto.class)
+                .doFinally(signal -> responseCache.evict(itemCache(itemId), SEARCH_CACHE, REQUESTS_CACHE));
     }
 
     @GetMapping("/{itemId}")
-    public Mono<ItemOutcomeInfoDto> getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                          @PathVariable("itemId") Long itemId) {
+    public Mono<ResponseEntity<ItemOutcomeInfoDto>> getItemById(@RequestHeader("X-Sharer-User-Id") long userId,
+                                          @PathVariable("itemId") Long itemId,
+                                          ServerHttpRequest request) {
         log.info("Получен запрос от пользователя '{}' - показать итем '{}'", userId, itemId);
-        return webClient.get()
+        return responseCache.get(ResponseCache.key(request, userId), () -> webClient.get()
                 .uri(API_PREFIX + API_PATH, itemId)
                 .header("X-Sharer-User-Id", String.valueOf(userId))
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError,
                         clientResponse -> Mono.error(new DataNotFoundException("Итем не найден")))
-                .bodyToMono(ItemOutcomeInfoDto.class);
+                .toEntity(ItemOutcomeInfoDto.class)
+                .map(ConditionalRequests::withEtag), ItemController::withoutBookings);
+    }
+
+    /**
+     * Владелец видит последнее и следующее бронирование вещи. Они меняются просто с течением
+     * времени, и удалить запись при изменении данных нельзя, поэтому такой ответ не кэшируется.
+     */
+    private static boolean withoutBookings(ResponseEntity<ItemOutcomeInfoDto> response) {
+        ItemOutcomeInfoDto item = response.getBody();
+        return item == null || (item.getLastBooking() == null && item.getNextBooking() == null);
     }
 
     @DeleteMapping("/{itemId}")
-    public void deleteItem(@RequestHeader("X-Sharer-User-Id") long userId,
-                           @PathVariable long itemId) {
+    public Mono<Void> deleteItem(@RequestHeader("X-Sharer-User-Id") long userId,
+                                 @PathVariable long itemId) {
         log.info("Получен запрос на удаление итема '{}' пользователя '{}'",itemId, userId);
-        webClient.delete()
+        return webClient.delete()
                 .uri(API_PREFIX + API_PATH, itemId)
+                .header("X-Sharer-User-Id", String.valueOf(userId))
                 .retrieve()
+                .onStatus(HttpStatus::is4xxClientError,
+                        clientResponse -> Mono.error(new DataNotFoundException("Итем не найден")))
                 .bodyToMono(Void.class)
-                .subscribe();
+                .doFinally(signal -> responseCache.evict(itemCache(itemId), SEARCH_CACHE, REQUESTS_CACHE));
     }
 
     @GetMapping("/search")
-    public Mono<List<ItemOutcomeDto>> searchItem(@RequestHeader("X-Sharer-User-Id") long userId,
+    public Mono<ResponseEntity<List<ItemOutcomeDto>>> searchItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @RequestParam String text,
                                            @RequestParam(name = "from", defaultValue = "0") int from,
-                                           @RequestParam(name = "size", defaultValue = "10") int size) {
+                                           @RequestParam(name = "size", defaultValue = "10") int size,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                           ServerHttpRequest request) {
         log.info("Получен запрос на поиск итема по содержанию текста '{}' у пользователя '{}', {} элементов на {} странице",text, userId, size, from);
         if ((from < 0) || (size < 1)) {
             throw new ValidationException("Неверные параметры запроса");
         }
-        return webClient.get()
+        if ((start == null) != (end == null) || (start != null && !start.isBefore(end))) {
+            throw new ValidationException("Неверные параметры запроса");
+        }
+        return responseCache.get(ResponseCache.key(request, userId), () -> webClient.get()
                 .uri(uriBuilder ->
                         uriBuilder.path(API_PREFIX + "/search")
                                 .queryParam("text", text)
                                 .queryParam("from", from)
                                 .queryParam("size", size)
+                                .queryParamIfPresent("start", Optional.ofNullable(start))
+                                .queryParamIfPresent("end", Optional.ofNullable(end))
                                 .build())
                 .header("X-Sharer-User-Id", String.valueOf(userId))
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<>() {
-                });
+                .toEntity(new ParameterizedTypeReference<List<ItemOutcomeDto>>() {
+                })
+                .map(ConditionalRequests::withEtag));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<ItemAvailabilityDto>> getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                     @PathVariable long itemId,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                     @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                     ServerHttpRequest request) {
+        log.info("Получен запрос от пользователя '{}' - занятость итема '{}' с {} по {}", userId, itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Неверные параметры запроса");
+        }
+        return webClient.get()
+                .uri(uriBuilder -> uriBuilder.path(API_PREFIX + API_PATH + "/availability")
+                        .queryParam("from", from)
+                        .queryParam("to", to)
+                        .build(itemId))
+                .header("X-Sharer-User-Id", String.valueOf(userId))
+                .headers(ConditionalRequests.ifNoneMatch(request))
+                .retrieve()
+                .onStatus(httpStatus -> httpStatus.equals(HttpStatus.BAD_REQUEST),
+                        clientResponse -> Mono.error(new ValidationException("Неверные параметры запроса")))
+                .onStatus(HttpStatus::is4xxClientError,
+                        clientResponse -> Mono.error(new DataNotFoundException("Итем не найден")))
+                .toEntity(ItemAvailabilityDto.class)
+                .map(ConditionalRequests::withEtag);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -136,6 +222,11 @@ public class ItemController {
                         clientResponse -> Mono.error(new DataNotFoundException("Бронирование не найдено")))
                 .onStatus(httpStatus -> httpStatus.equals(HttpStatus.BAD_REQUEST),
                         clientResponse -> Mono.error(new ValidationException("Невалидные данные запроса")))
-                .bodyToMono(ItemOutcomeInfoDto.CommentDto.class);
+                .bodyToMono(ItemOutcomeInfoDto.CommentDto.class)
+                .doFinally(signal -> responseCache.evict(itemCache(itemId)));
+    }
+
+    private static String itemCache(long itemId) {
+        return API_PREFIX + "/" + itemId;
     }
 }
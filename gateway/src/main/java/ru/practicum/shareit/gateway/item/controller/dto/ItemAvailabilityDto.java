@@ -0,0 +1,27 @@
+package ru.practicum.shareit.gateway.item.controller.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<PeriodDto> busy;
+    private List<PeriodDto> free;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class PeriodDto {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
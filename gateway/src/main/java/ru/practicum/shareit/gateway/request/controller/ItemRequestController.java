@@ -5,10 +5,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.config.ConditionalRequests;
+import ru.practicum.shareit.gateway.config.ResponseCache;
 import ru.practicum.shareit.gateway.exception.DataNotFoundException;
 import ru.practicum.shareit.gateway.exception.ValidationException;
 import ru.practicum.shareit.gateway.request.controller.dto.ItemRequestDto;
@@ -27,6 +31,7 @@ import java.util.List;
 @Validated
 public class ItemRequestController {
     private final WebClient webClient;
+    private final ResponseCache responseCache;
     private static final String API_PREFIX = "/requests";
     private static final String API_PATH = "/{requestId}";
 
@@ -41,53 +46,61 @@ public class ItemRequestController {
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(dto)
                 .retrieve()
-                .bodyToMono(ItemRequestDto.class);
+                .bodyToMono(ItemRequestDto.class)
+                .doFinally(signal -> responseCache.evict(API_PREFIX + "/all"));
     }
 
     @GetMapping
-    public Mono<List<ItemRequestInfoDto>> getRequests(@RequestHeader("X-Sharer-User-Id") String userId) {
+    public Mono<ResponseEntity<List<ItemRequestInfoDto>>> getRequests(@RequestHeader("X-Sharer-User-Id") String userId,
+                                                                      ServerHttpRequest request) {
         log.info("Получен запрос - показать список запросов пользователя '{}'", userId);
         return webClient.get()
                 .uri(API_PREFIX)
                 .header("X-Sharer-User-Id", userId)
+                .headers(ConditionalRequests.ifNoneMatch(request))
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<>() {
-                });
+                .toEntity(new ParameterizedTypeReference<List<ItemRequestInfoDto>>() {
+                })
+                .map(ConditionalRequests::withEtag);
     }
 
     @GetMapping("/all")
-    public Mono<List<ItemRequestInfoDto>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public Mono<ResponseEntity<List<ItemRequestInfoDto>>> getAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") int from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10") int size) {
+                                                   @Positive @RequestParam(name = "size", defaultValue = "10") int size,
+                                                   ServerHttpRequest request) {
         log.info("Получен запрос от пользователя '{}'- показать {} запросов других пользователей на {} странице ", userId, size, from);
         if ((from < 0) || (size < 1)) {
             throw new ValidationException("Неверные параметры запроса");
         }
-        return webClient.get()
+        return responseCache.get(ResponseCache.key(request, userId), () -> webClient.get()
                 .uri(uriBuilder ->
                     uriBuilder.path(API_PREFIX + "/all")
-                            .queryParam("from", "0")
-                            .queryParam("size", "10")
+                            .queryParam("from", from)
+                            .queryParam("size", size)
                             .build())
                 .header("X-Sharer-User-Id", String.valueOf(userId))
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<>() {
-                });
+                .toEntity(new ParameterizedTypeReference<List<ItemRequestInfoDto>>() {
+                })
+                .map(ConditionalRequests::withEtag));
     }
 
     @GetMapping("/{requestId}")
-    public Mono<ItemRequestInfoDto> getRequestById(@RequestHeader("X-Sharer-User-Id") String userId,
-                                             @PathVariable("requestId") Long requestId) {
+    public Mono<ResponseEntity<ItemRequestInfoDto>> getRequestById(@RequestHeader("X-Sharer-User-Id") String userId,
+                                             @PathVariable("requestId") Long requestId,
+                                             ServerHttpRequest request) {
         log.info("Получен запрос от пользователя '{}' - показать запрос '{}'", userId, requestId);
         return webClient.get()
                 .uri(API_PREFIX + API_PATH, requestId)
                 .header("X-Sharer-User-Id", userId)
+                .headers(ConditionalRequests.ifNoneMatch(request))
                 .retrieve()
                 .onStatus(httpStatus -> httpStatus.equals(HttpStatus.BAD_REQUEST),
                         clientResponse -> Mono.error(new ValidationException("Ошибка валидации")))
                 .onStatus(httpStatus -> httpStatus.equals(HttpStatus.NOT_FOUND),
                         clientResponse -> Mono.error(new DataNotFoundException("Данные не найдены")))
-                .bodyToMono(new ParameterizedTypeReference<>() {
-                });
+                .toEntity(ItemRequestInfoDto.class)
+                .map(ConditionalRequests::withEtag);
     }
 }
@@ -5,10 +5,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.config.ConditionalRequests;
+import ru.practicum.shareit.gateway.config.ResponseCache;
 import ru.practicum.shareit.gateway.exception.DataNotFoundException;
 import ru.practicum.shareit.gateway.user.controller.dto.UserDto;
 
@@ -23,17 +27,20 @@ import java.util.List;
 @Validated
 public class UserController {
     private final WebClient webClient;
+    private final ResponseCache responseCache;
     private static final String API_PREFIX = "/users";
     private static final String API_PATH = "/{userId}";
 
     @GetMapping
-    public Mono<List<UserDto>> getAllUsers() {
+    public Mono<ResponseEntity<List<UserDto>>> getAllUsers(ServerHttpRequest request) {
         log.info("Получен запрос на получение списка всех пользователей");
         return webClient.get()
                 .uri(uriBuilder -> uriBuilder.path(API_PREFIX).build())
+                .headers(ConditionalRequests.ifNoneMatch(request))
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<>() {
-                });
+                .toEntity(new ParameterizedTypeReference<List<UserDto>>() {
+                })
+                .map(ConditionalRequests::withEtag);
     }
 
     @PostMapping
@@ -58,24 +65,28 @@ public class UserController {
                 .contentType(MediaType.APPLICATION_JSON)
                 .bodyValue(dto)
                 .retrieve()
-                .bodyToMono(UserDto.class);
+                .bodyToMono(UserDto.class)
+                .doFinally(signal -> responseCache.evictAll());
     }
 
     @GetMapping("/{userId}")
-    public Mono<UserDto> getUser(@PathVariable("userId") Long userId) {
+    public Mono<ResponseEntity<UserDto>> getUser(@PathVariable("userId") Long userId,
+                                                 ServerHttpRequest request) {
         log.info("Получен запрос - показать данные пользователя '{}'", userId);
         return webClient.get()
                 .uri(API_PREFIX + API_PATH, userId)
+                .headers(ConditionalRequests.ifNoneMatch(request))
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError,
                         clientResponse -> Mono.error(new DataNotFoundException("Пользователь не найден")))
-                .bodyToMono(UserDto.class);
+                .toEntity(UserDto.class)
+                .map(ConditionalRequests::withEtag);
     }
 
     @DeleteMapping("/{userId}")
-    public void deleteUser(@PathVariable("userId") Long userId) {
+    public Mono<Void> deleteUser(@PathVariable("userId") Long userId) {
         log.info("Получен запрос - удалить данные пользователя '{}'", userId);
-        webClient.delete()
+        return webClient.delete()
                 .uri(API_PREFIX + API_PATH, userId)
                 .retrieve()
                 .onStatus(HttpStatus::is4xxClientError,
@@ -83,6 +94,6 @@ public class UserController {
                 .onStatus(HttpStatus::is5xxServerError,
                         clientResponse -> Mono.error(new ServerException("Server error occurred")))
                 .bodyToMono(Void.class)
-                .subscribe();
+                .doFinally(signal -> responseCache.evictAll());
     }
 }
\ No newline at end of file
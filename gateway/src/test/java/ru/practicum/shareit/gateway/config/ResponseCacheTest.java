@@ -0,0 +1,240 @@
+package ru.practicum.shareit.gateway.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class ResponseCacheTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final ResponseCache cache = new ResponseCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    // загрузка, которая завершается только по сигналу теста
+    private Supplier<Mono<String>> pending(Sinks.One<String> upstream) {
+        return () -> {
+            calls.incrementAndGet();
+            return upstream.asMono()
+                    .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                    .doOnCancel(() -> cancelled.set(true));
+        };
+    }
+
+    private Supplier<Mono<String>> loader(String value) {
+        return () -> {
+            calls.incrementAndGet();
+            return Mono.just(value);
+        };
+    }
+
+    @Test
+    @DisplayName("Повторный запрос получает ответ из кэша")
+    void get_whenCached_thenLoaderNotCalled() {
+        Assertions.assertEquals("item", cache.get("/items/1?#1", loader("item")).block(TIMEOUT));
+        Assertions.assertEquals("item", cache.get("/items/1?#1", loader("other")).block(TIMEOUT));
+
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Изменение удаляет записи своего пути для всех пользователей и строк запроса, не затрагивая другие")
+    void evict_shouldRemoveOnlyMatchingPaths() {
+        cache.get("/items/1?#1", loader("item1")).block(TIMEOUT);
+        cache.get("/items/1?#2", loader("item1")).block(TIMEOUT);
+        cache.get("/items/12?#1", loader("item12")).block(TIMEOUT);
+        cache.get("/items/search?text=a#1", loader("search")).block(TIMEOUT);
+        cache.get("/items/search?text=b#2", loader("search")).block(TIMEOUT);
+
+        cache.evict("/items/1", "/items/search");
+
+        Assertions.assertEquals(1, cache.indexedKeys());
+        Assertions.assertEquals("changed", cache.get("/items/1?#1", loader("changed")).block(TIMEOUT));
+        Assertions.assertEquals("changed", cache.get("/items/1?#2", loader("changed")).block(TIMEOUT));
+        Assertions.assertEquals("item12", cache.get("/items/12?#1", loader("changed")).block(TIMEOUT));
+        Assertions.assertEquals("changed", cache.get("/items/search?text=a#1", loader("changed")).block(TIMEOUT));
+        Assertions.assertEquals(8, calls.get());
+    }
+
+    @Test
+    @DisplayName("Записи, вытесненные по размеру, убираются и из индекса путей")
+    void get_whenEvictedBySize_thenUnindexed() {
+        ResponseCache small = new ResponseCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1), Runnable::run);
+        for (int i = 0; i < 1000; i++) {
+            small.get("/items/" + i + "?#1", loader("item" + i)).block(TIMEOUT);
+        }
+
+        Assertions.assertEquals(10, small.indexedKeys());
+    }
+
+    @Test
+    @DisplayName("Ответ, который нельзя кэшировать, получают только ожидавшие его запросы")
+    void get_whenNotCacheable_thenLoadedEveryTime() {
+        cache.get("/items/1?#1", loader("owner view"), response -> false).block(TIMEOUT);
+        cache.get("/items/1?#1", loader("owner view"), response -> false).block(TIMEOUT);
+
+        Assertions.assertEquals(2, calls.get());
+        Assertions.assertEquals(0, cache.indexedKeys());
+    }
+
+    @Test
+    @DisplayName("evictAll очищает кэш целиком")
+    void evictAll_shouldRemoveEverything() {
+        cache.get("/users/1?#1", loader("user")).block(TIMEOUT);
+        cache.get("/items/1?#1", loader("item")).block(TIMEOUT);
+
+        cache.evictAll();
+
+        Assertions.assertEquals("changed", cache.get("/users/1?#1", loader("changed")).block(TIMEOUT));
+        Assertions.assertEquals("changed", cache.get("/items/1?#1", loader("changed")).block(TIMEOUT));
+        Assertions.assertEquals(4, calls.get());
+    }
+
+    @Test
+    @DisplayName("Ответ, загрузка которого началась до удаления записей, в кэш не попадает")
+    void get_whenEvictedDuringLoad_thenResponseNotStored() throws Exception {
+        Sinks.One<String> upstream = Sinks.one();
+        CompletableFuture<String> first = cache.get("/items/1?#1", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+
+        cache.evict("/items/1");
+        upstream.tryEmitValue("old");
+
+        Assertions.assertEquals("old", first.get(5, TimeUnit.SECONDS));
+        Assertions.assertEquals("new", cache.get("/items/1?#1", loader("new")).block(TIMEOUT));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Ключ включает путь, строку запроса и пользователя")
+    void key_shouldBeScopedByQueryAndUser() {
+        MockServerHttpRequest drill = MockServerHttpRequest.get("/items/search?text=drill&from=0").build();
+        MockServerHttpRequest saw = MockServerHttpRequest.get("/items/search?text=saw&from=0").build();
+        MockServerHttpRequest item = MockServerHttpRequest.get("/items/1").build();
+
+        Assertions.assertEquals("/items/search?text=drill&from=0#1", ResponseCache.key(drill, 1L));
+        Assertions.assertEquals("/items/1?#1", ResponseCache.key(item, 1L));
+        Assertions.assertNotEquals(ResponseCache.key(drill, 1L), ResponseCache.key(drill, 2L));
+        Assertions.assertNotEquals(ResponseCache.key(drill, 1L), ResponseCache.key(saw, 1L));
+    }
+
+    @Test
+    @DisplayName("Ответы разным пользователям кэшируются раздельно")
+    void get_shouldKeepUsersApart() {
+        MockServerHttpRequest item = MockServerHttpRequest.get("/items/1").build();
+
+        Assertions.assertEquals("owner view", cache.get(ResponseCache.key(item, 1L), loader("owner view")).block(TIMEOUT));
+        Assertions.assertEquals("guest view", cache.get(ResponseCache.key(item, 2L), loader("guest view")).block(TIMEOUT));
+        Assertions.assertEquals("owner view", cache.get(ResponseCache.key(item, 1L), loader("other")).block(TIMEOUT));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Одинаковые одновременные запросы идут на сервер один раз")
+    void get_whenConcurrentIdenticalRequests_thenSingleUpstreamCall() throws Exception {
+        Sinks.One<String> upstream = Sinks.one();
+        int clients = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<CompletableFuture<String>>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < clients; i++) {
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get("/items/1?#1", pending(upstream)).toFuture();
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<String>> waiting = new ArrayList<>();
+            for (Future<CompletableFuture<String>> response : responses) {
+                waiting.add(response.get(5, TimeUnit.SECONDS));
+            }
+            upstream.tryEmitValue("item");
+
+            for (CompletableFuture<String> response : waiting) {
+                Assertions.assertEquals("item", response.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, subscriptions.get());
+        Assertions.assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Отказ одного из ожидающих не отменяет загрузку для остальных")
+    void get_whenOneSubscriberCancels_thenOthersStillReceiveResponse() throws Exception {
+        Sinks.One<String> upstream = Sinks.one();
+        Disposable first = cache.get("/items/1?#1", pending(upstream)).subscribe();
+        CompletableFuture<String> second = cache.get("/items/1?#1", pending(upstream)).toFuture();
+
+        first.dispose();
+        upstream.tryEmitValue("item");
+
+        Assertions.assertEquals("item", second.get(5, TimeUnit.SECONDS));
+        Assertions.assertFalse(cancelled.get());
+        Assertions.assertEquals(1, subscriptions.get());
+    }
+
+    @Test
+    @DisplayName("Загрузка отменяется, когда от неё отказались все ожидающие")
+    void get_whenAllSubscribersCancel_thenUpstreamCancelled() {
+        Sinks.One<String> upstream = Sinks.one();
+        Disposable first = cache.get("/items/1?#1", pending(upstream)).subscribe();
+        Disposable second = cache.get("/items/1?#1", pending(upstream)).subscribe();
+
+        first.dispose();
+        second.dispose();
+
+        Assertions.assertTrue(cancelled.get());
+        Assertions.assertFalse(cache.isLoading("/items/1?#1"));
+    }
+
+    @Test
+    @DisplayName("Ошибка загрузки не остаётся в loading: следующий запрос идёт на сервер заново")
+    void get_whenUpstreamFails_thenNextRequestLoadsAgain() {
+        Mono<String> failed = cache.get("/items/1?#1", () -> {
+            calls.incrementAndGet();
+            return Mono.error(new IllegalStateException("сервер недоступен"));
+        });
+
+        Assertions.assertThrows(IllegalStateException.class, () -> failed.block(TIMEOUT));
+        Assertions.assertFalse(cache.isLoading("/items/1?#1"));
+        Assertions.assertEquals("item", cache.get("/items/1?#1", loader("item")).block(TIMEOUT));
+        Assertions.assertEquals(2, calls.get());
+    }
+
+    @Test
+    @DisplayName("Загрузка убирается из loading до того, как ответ получат ожидающие")
+    void get_whenResponseDelivered_thenLoadingEntryAlreadyRemoved() {
+        AtomicBoolean loadingOnDelivery = new AtomicBoolean(true);
+
+        String response = cache.get("/items/1?#1", loader("item"))
+                .doOnNext(item -> loadingOnDelivery.set(cache.isLoading("/items/1?#1")))
+                .block(TIMEOUT);
+
+        Assertions.assertEquals("item", response);
+        Assertions.assertFalse(loadingOnDelivery.get());
+    }
+}
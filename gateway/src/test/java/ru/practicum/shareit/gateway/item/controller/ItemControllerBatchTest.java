@@ -0,0 +1,98 @@
+package ru.practicum.shareit.gateway.item.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import ru.practicum.shareit.gateway.item.controller.dto.ItemIncomeDto;
+import ru.practicum.shareit.gateway.item.controller.dto.ItemOutcomeDto;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервер подменён HTTP-сервером, который возвращает полученный пакет как есть: ответ не меньше запроса.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class ItemControllerBatchTest {
+    private static final int BATCH_LIMIT = 10_000;
+    private static final AtomicInteger SERVER_BATCHES = new AtomicInteger();
+    private static final DisposableServer SERVER = HttpServer.create()
+            .port(0)
+            .route(routes -> routes.post("/items/batch", (request, response) -> {
+                SERVER_BATCHES.incrementAndGet();
+                return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .send(request.receive().retain());
+            }))
+            .bindNow();
+
+    private final WebTestClient client;
+
+    @DynamicPropertySource
+    static void server(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + SERVER.port());
+        registry.add("shareit-server.response-timeout", () -> "10s");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        SERVER.disposeNow();
+    }
+
+    // поля предельной для БД длины (50 и 200 символов) кириллицей: два байта на символ в UTF-8
+    private static List<ItemIncomeDto> batch(int size) {
+        ItemIncomeDto item = new ItemIncomeDto("д".repeat(50), "о".repeat(200), true, 1L);
+        return Collections.nCopies(size, item);
+    }
+
+    @Test
+    @DisplayName("Пакет на пределе в 10 000 вещей проходит через шлюз в обе стороны")
+    void addBatch_whenNearLimit_thenForwardedAndDecoded() {
+        List<ItemOutcomeDto> saved = client.mutate()
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(16 * 1024 * 1024))
+                .build()
+                .post()
+                .uri("/items/batch")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(batch(BATCH_LIMIT))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(new ParameterizedTypeReference<List<ItemOutcomeDto>>() {
+                })
+                .returnResult()
+                .getResponseBody();
+
+        Assertions.assertEquals(BATCH_LIMIT, saved.size());
+        Assertions.assertEquals("д".repeat(50), saved.get(BATCH_LIMIT - 1).getName());
+    }
+
+    @Test
+    @DisplayName("Пакет больше предела отклоняется шлюзом и до сервера не доходит")
+    void addBatch_whenOverLimit_thenBadRequest() {
+        int before = SERVER_BATCHES.get();
+
+        client.post()
+                .uri("/items/batch")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(batch(BATCH_LIMIT + 1))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        Assertions.assertEquals(before, SERVER_BATCHES.get());
+    }
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.gateway.item.controller;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.config.ResponseCache;
+import ru.practicum.shareit.gateway.item.controller.dto.ItemIncomeDto;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Сервер подменён функцией обмена: она считает GET-запросы и возвращает текущее название вещи.
+ */
+class ItemControllerCacheTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final AtomicInteger serverGets = new AtomicInteger();
+    private volatile String itemName = "Дрель";
+    private volatile String nextBooking = "null";
+    private final ItemController controller = new ItemController(
+            WebClient.builder()
+                    .exchangeFunction(request -> {
+                        if (request.method() == HttpMethod.GET) {
+                            serverGets.incrementAndGet();
+                        }
+                        return Mono.just(ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                .body("{\"id\":1,\"name\":\"" + itemName + "\",\"description\":\"d\",\"available\":true," +
+                                        "\"nextBooking\":" + nextBooking + "}")
+                                .build());
+                    })
+                    .build(),
+            new ResponseCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1)));
+
+    private String getItemName(long userId) {
+        return controller.getItemById(userId, 1L, MockServerHttpRequest.get("/items/1").build())
+                .block(TIMEOUT)
+                .getBody()
+                .getName();
+    }
+
+    @Test
+    @DisplayName("Повторный GET вещи отдаётся из кэша шлюза")
+    void getItemById_whenRepeated_thenServedFromCache() {
+        getItemName(1L);
+        getItemName(1L);
+
+        Assertions.assertEquals(1, serverGets.get());
+    }
+
+    @Test
+    @DisplayName("Вещь с ближайшими бронированиями (вид владельца) не кэшируется: они меняются со временем")
+    void getItemById_whenResponseHasBookings_thenNotCached() {
+        nextBooking = "{\"id\":1,\"bookerId\":2,\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\"}";
+
+        getItemName(1L);
+        getItemName(1L);
+
+        Assertions.assertEquals(2, serverGets.get());
+    }
+
+    @Test
+    @DisplayName("Изменение вещи через шлюз удаляет её из кэша")
+    void updateItem_shouldEvictCachedItem() {
+        Assertions.assertEquals("Дрель", getItemName(1L));
+
+        itemName = "Перфоратор";
+        controller.updateItem(1L, 1L, new ItemIncomeDto("Перфоратор", null, null, null)).block(TIMEOUT);
+
+        Assertions.assertEquals("Перфоратор", getItemName(1L));
+        Assertions.assertEquals(2, serverGets.get());
+    }
+
+    @Test
+    @DisplayName("Удаление вещи через шлюз удаляет её из кэша для всех пользователей")
+    void deleteItem_shouldEvictCachedItemForAllUsers() {
+        getItemName(1L);
+        getItemName(2L);
+
+        controller.deleteItem(1L, 1L).block(TIMEOUT);
+        getItemName(1L);
+        getItemName(2L);
+
+        Assertions.assertEquals(4, serverGets.get());
+    }
+}
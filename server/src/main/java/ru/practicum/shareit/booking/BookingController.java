@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingIncomeDto;
 import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
@@ -44,14 +45,15 @@ public class BookingController {
     public BookingOutcomeDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
                                             @PathVariable("bookingId") long bookingId) {
         log.info("Получен запрос на получение информации о бронировании с ID={}", bookingId);
-        return BookingMapper.toBookingDto(bookingService.getBookingById(userId, bookingId));
+        return bookingService.getBookingById(userId, bookingId);
     }
 
     @GetMapping()
     public List<BookingOutcomeDto> getBookingsByUser(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam (name = "state", defaultValue = "ALL") String stateParam,
                                                      @RequestParam(name = "from", defaultValue = "0") int from,
-                                                     @RequestParam(name = "size", defaultValue = "10") int size) {
+                                                     @RequestParam(name = "size", defaultValue = "10") int size,
+                                                     @RequestParam(name = "after", required = false) String after) {
         log.info("Получен запрос на получение " +
                 "{} бронирований на странице {} пользователя с ID={} с параметром STATE={}",size, from, userId, stateParam);
         SearchStatus state;
@@ -60,6 +62,10 @@ public class BookingController {
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
+        if (after != null) {
+            return bookingService.getBookings(userId, state, BookingCursor.parse(after), size).stream()
+                    .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        }
         return bookingService.getBookings(userId, state, from / size, size).stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 
@@ -67,7 +73,8 @@ public class BookingController {
     public List<BookingOutcomeDto> getBookingsByOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam (name = "state", defaultValue = "ALL") String stateParam,
                                                       @RequestParam(name = "from", defaultValue = "0") int from,
-                                                      @RequestParam(name = "size", defaultValue = "10") int size) {
+                                                      @RequestParam(name = "size", defaultValue = "10") int size,
+                                                      @RequestParam(name = "after", required = false) String after) {
         log.info("Получен запрос на получение " +
                 "{} бронирований на странице {} владельцем вещи с ID={} с параметром STATE={}",size, from, userId, stateParam);
         SearchStatus state;
@@ -76,6 +83,10 @@ public class BookingController {
         } catch (IllegalArgumentException e) {
             throw new ValidationException("Unknown state: UNSUPPORTED_STATUS");
         }
+        if (after != null) {
+            return bookingService.getBookingsByOwner(userId, state, BookingCursor.parse(after), size).stream()
+                    .map(BookingMapper::toBookingDto).collect(Collectors.toList());
+        }
         return bookingService.getBookingsByOwner(userId, state, from / size, size).stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -1,52 +1,162 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("select b from Booking as b where b.item.owner.id = :userId order by b.start desc ")
-    Page<Booking> findAllByOwnerId(Long userId, Pageable pageable); //ALL
+    String AFTER_CURSOR = "and (b.start < :afterStart or (b.start = :afterStart and b.id < :afterId)) ";
+    String ORDER_BY_START = "order by b.start desc, b.id desc ";
 
+    @Override
+    @EntityGraph(Booking.DETAILS)
+    Optional<Booking> findById(Long id);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingOutcomeDto(b.id, b.start, b.end, " +
+            "i.id, i.name, i.description, i.available, o.id, o.email, o.name, i.request.id, " +
+            "u.id, u.email, u.name, b.status) " +
+            "from Booking as b join b.item as i join i.owner as o join b.booker as u " +
+            "where b.id = :bookingId")
+    Optional<BookingOutcomeDto> findOutcomeById(Long bookingId);
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.item.owner.id = :userId order by b.start desc, b.id desc ")
+    Slice<Booking> findAllByOwnerId(Long userId, Pageable pageable); //ALL
+
+    @EntityGraph(Booking.DETAILS)
     @Query("select b from Booking as b where b.item.owner.id = :userId and b.start < :date and b.end > :date " +
-            "order by b.start desc ")
-    List<Booking> getBookingByOwner_IdAndStartIsBeforeAndEndAfter(Long userId, LocalDateTime date); //CURRENT booking
+            "order by b.start desc, b.id desc ")
+    Slice<Booking> getBookingByOwner_IdAndStartIsBeforeAndEndAfter(Long userId, LocalDateTime date, Pageable pageable); //CURRENT booking
 
+    @EntityGraph(Booking.DETAILS)
     @Query("select b from Booking as b where b.item.owner.id = :userId and b.end < :date " +
-            "order by b.start desc ")
-    List<Booking> getBookingByOwner_IdAndEndBefore(Long userId, LocalDateTime date); //PAST booking
+            "order by b.start desc, b.id desc ")
+    Slice<Booking> getBookingByOwner_IdAndEndBefore(Long userId, LocalDateTime date, Pageable pageable); //PAST booking
 
+    @EntityGraph(Booking.DETAILS)
     @Query("select b from Booking as b where b.item.owner.id = :userId and b.start > :date " +
-            "order by b.start desc ")
-    List<Booking> getBookingByOwnerIdAndStartAfter(Long userId, LocalDateTime date); //FUTURE booking
+            "order by b.start desc, b.id desc ")
+    Slice<Booking> getBookingByOwnerIdAndStartAfter(Long userId, LocalDateTime date, Pageable pageable); //FUTURE booking
 
+    @EntityGraph(Booking.DETAILS)
     @Query("select b from Booking as b where b.item.owner.id = :userId and b.status = :status " +
-            "order by b.start desc ")
-    List<Booking> getBookingByOwner_IdAndStatus(Long userId, Status status); //WAITING ожидающие подтвержд REJECTED отклонённые
+            "order by b.start desc, b.id desc ")
+    Slice<Booking> getBookingByOwner_IdAndStatus(Long userId, Status status, Pageable pageable); //WAITING ожидающие подтвержд REJECTED отклонённые
+
+    @Query("select case when count(b) > 0 then true else false end from Booking as b " +
+            "where b.item.id = :itemId and b.start < :end and b.end > :start " +
+            "and b.status in (ru.practicum.shareit.booking.Status.APPROVED, " +
+            "ru.practicum.shareit.booking.Status.WAITING)")
+    boolean existsOverlapping(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    @Query("select distinct b.item.id from Booking as b " +
+            "where b.item.id in :itemIds and b.start < :end and b.end > :start " +
+            "and b.status in (ru.practicum.shareit.booking.Status.APPROVED, " +
+            "ru.practicum.shareit.booking.Status.WAITING)")
+    List<Long> findBusyItemIds(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
 
     @Query("select b from Booking as b where b.item.id = :itemId ")
     List<Booking> findAllByItemId(Long itemId);
 
+    @Query("select b from Booking as b where b.item.id in :itemIds and b.start = " +
+            "(select max(l.start) from Booking as l where l.item.id = b.item.id and l.start < :date)")
+    List<Booking> findLastBookingsForItems(Collection<Long> itemIds, LocalDateTime date);
+
+    @Query("select b from Booking as b where b.item.id in :itemIds " +
+            "and b.status not in (ru.practicum.shareit.booking.Status.REJECTED, " +
+            "ru.practicum.shareit.booking.Status.CANCELED) " +
+            "and b.start = (select min(n.start) from Booking as n where n.item.id = b.item.id and n.start > :date " +
+            "and n.status not in (ru.practicum.shareit.booking.Status.REJECTED, " +
+            "ru.practicum.shareit.booking.Status.CANCELED))")
+    List<Booking> findNextBookingsForItems(Collection<Long> itemIds, LocalDateTime date);
+
+    @EntityGraph(Booking.DETAILS)
     @Query("select b from Booking as b where b.booker.id = :userId and b.start < :date and b.end > :date " +
-            "order by b.start desc ")
-    List<Booking> getBookingForBookerAndStartIsBeforeAndEndAfter(Long userId, LocalDateTime date);
+            "order by b.start desc, b.id desc ")
+    Slice<Booking> getBookingForBookerAndStartIsBeforeAndEndAfter(Long userId, LocalDateTime date, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS)
     @Query("select b from Booking as b where b.booker.id = :userId and b.end < :date " +
-            "order by b.start desc ")
-    List<Booking> getBookingForBookerAndEndBefore(Long userId, LocalDateTime date);
+            "order by b.start desc, b.id desc ")
+    Slice<Booking> getBookingForBookerAndEndBefore(Long userId, LocalDateTime date, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS)
     @Query("select b from Booking as b where b.booker.id = :userId and b.start > :date " +
-            "order by b.start desc ")
-    List<Booking> getBookingForBookerIdAndStartAfter(Long userId, LocalDateTime date);
+            "order by b.start desc, b.id desc ")
+    Slice<Booking> getBookingForBookerIdAndStartAfter(Long userId, LocalDateTime date, Pageable pageable);
 
+    @EntityGraph(Booking.DETAILS)
     @Query("select b from Booking as b where b.booker.id = :userId and b.status = :status " +
-            "order by b.start desc ")
-    List<Booking> getBookingForBookerAndStatus(Long userId, Status status);
+            "order by b.start desc, b.id desc ")
+    Slice<Booking> getBookingForBookerAndStatus(Long userId, Status status, Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.booker.id = :userId order by b.start desc, b.id desc ")
+    Slice<Booking> findAllByBookerId(Long userId, Pageable pageable);
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.booker.id = :userId " + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findBookerPageAfter(Long userId, LocalDateTime afterStart, Long afterId,
+                                      Pageable pageable); //ALL
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.booker.id = :userId and b.start < :date and b.end > :date " +
+            AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findBookerCurrentPageAfter(Long userId, LocalDateTime date, LocalDateTime afterStart, Long afterId,
+                                             Pageable pageable); //CURRENT
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.booker.id = :userId and b.end < :date " +
+            AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findBookerPastPageAfter(Long userId, LocalDateTime date, LocalDateTime afterStart, Long afterId,
+                                          Pageable pageable); //PAST
 
-    @Query("select b from Booking as b where b.booker.id = :userId order by b.start desc ")
-    Page<Booking> findAllByBookerId(Long userId, Pageable pageable);
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.booker.id = :userId and b.start > :date " +
+            AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findBookerFuturePageAfter(Long userId, LocalDateTime date, LocalDateTime afterStart, Long afterId,
+                                            Pageable pageable); //FUTURE
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.booker.id = :userId and b.status = :status " +
+            AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findBookerStatusPageAfter(Long userId, Status status, LocalDateTime afterStart, Long afterId,
+                                            Pageable pageable); //WAITING, REJECTED
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.item.owner.id = :userId " + AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findOwnerPageAfter(Long userId, LocalDateTime afterStart, Long afterId,
+                                     Pageable pageable); //ALL
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.item.owner.id = :userId and b.start < :date and b.end > :date " +
+            AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findOwnerCurrentPageAfter(Long userId, LocalDateTime date, LocalDateTime afterStart, Long afterId,
+                                            Pageable pageable); //CURRENT
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.item.owner.id = :userId and b.end < :date " +
+            AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findOwnerPastPageAfter(Long userId, LocalDateTime date, LocalDateTime afterStart, Long afterId,
+                                         Pageable pageable); //PAST
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.item.owner.id = :userId and b.start > :date " +
+            AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findOwnerFuturePageAfter(Long userId, LocalDateTime date, LocalDateTime afterStart, Long afterId,
+                                           Pageable pageable); //FUTURE
+
+    @EntityGraph(Booking.DETAILS)
+    @Query("select b from Booking as b where b.item.owner.id = :userId and b.status = :status " +
+            AFTER_CURSOR + ORDER_BY_START)
+    List<Booking> findOwnerStatusPageAfter(Long userId, Status status, LocalDateTime afterStart, Long afterId,
+                                           Pageable pageable); //WAITING, REJECTED
 }
@@ -1,20 +1,32 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
 import ru.practicum.shareit.booking.dto.SearchStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface BookingService {
     Booking saveNewBooking(LocalDateTime start, LocalDateTime end, Long itemId, Long userId);
 
     Booking updateBooking(long bookingId, Long userId, Boolean approved);
 
-    Booking getBookingById(Long userId, long bookingId);
+    BookingOutcomeDto getBookingById(Long userId, long bookingId);
 
     List<Booking> getBookings(Long userId, SearchStatus state, int from, int size);
 
     List<Booking> getBookingsByOwner(Long userId, SearchStatus state, int from, int size);
 
-    List<Booking> getBookingsForUser(Long itemId);
+    List<Booking> getBookings(Long userId, SearchStatus state, BookingCursor after, int size);
+
+    List<Booking> getBookingsByOwner(Long userId, SearchStatus state, BookingCursor after, int size);
+
+    Map<Long, Booking> getLastBookings(Collection<Long> itemIds);
+
+    Map<Long, Booking> getNextBookings(Collection<Long> itemIds);
+
+    ItemAvailability getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to);
 }
@@ -3,9 +3,14 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
 import ru.practicum.shareit.booking.dto.SearchStatus;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemService;
@@ -14,8 +19,12 @@ import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,15 +33,17 @@ public class BookingServiceImpl implements BookingService {
     private final BookingRepository repository;
     private final UserService userService;
     private final ItemService itemService;
+    private final ItemSchedules schedules;
 
     @Override
+    @Transactional
     public Booking saveNewBooking(LocalDateTime start, LocalDateTime end, Long itemId, Long userId) {
         User booker = userService.getUserById(userId);
         if (booker == null) {
             throw new DataNotFoundException("Пользователь не найден.");
         }
         Status status = Status.WAITING;
-        Item item = itemService.getItemById(userId, itemId);
+        Item item = itemService.getItemForBooking(itemId);
         if (item.getOwner().getId().equals(booker.getId())) {
             throw new DataNotFoundException("Вещь не может быть забронирована её владельцем.");
         }
@@ -42,18 +53,23 @@ public class BookingServiceImpl implements BookingService {
         if (start.isAfter(end) || start.equals(end)) {
             throw new ValidationException("Время начала бронирования не может быть позже окончания.");
         }
-        return repository.save(new Booking(null, start, end, item, booker, status));
+        if (repository.existsOverlapping(itemId, start, end)) {
+            throw new ConflictException("Вещь уже забронирована на это время.");
+        }
+        Booking booking = repository.save(new Booking(null, start, end, item, booker, status));
+        schedules.bookingSaved(booking);
+        return booking;
     }
 
     @Override
+    @Transactional
     public Booking updateBooking(long bookingId, Long userId, Boolean approved) {
         User booker = userService.getUserById(userId);
         if (booker == null) {
             throw new DataNotFoundException("Пользователь не найден.");
         }
         Booking booking = repository.findById(bookingId).orElseThrow(() -> new DataNotFoundException("Бронирование не найдено!"));
-        Long itemIdFromBooking = booking.getItem().getId();
-        Boolean itemValid = itemService.getAllItems(userId).stream().anyMatch(item -> item.getId().equals(itemIdFromBooking));
+        boolean itemValid = booking.getItem().getOwner().getId().equals(userId);
         if (booking.getEnd().isBefore(LocalDateTime.now())) {
             throw new ValidationException("Время бронирования уже истекло!");
         }
@@ -82,18 +98,20 @@ public class BookingServiceImpl implements BookingService {
                 throw new ValidationException("Подтвердить бронирование может только владелец вещи!");
             }
         }
-        return repository.save(booking);
+        Booking saved = repository.save(booking);
+        schedules.bookingSaved(saved);
+        return saved;
     }
 
     @Override
-    public Booking getBookingById(Long userId, long bookingId) {
+    @Transactional(readOnly = true)
+    public BookingOutcomeDto getBookingById(Long userId, long bookingId) {
         if (userService.getUserById(userId) == null) {
             throw new DataNotFoundException("Пользователь не найден.");
         }
-        Booking booking = repository.findById(bookingId)
+        BookingOutcomeDto booking = repository.findOutcomeById(bookingId)
                 .orElseThrow(() -> new DataNotFoundException("Вещь с таким id не найдена."));
-        List<Item> items = itemService.findItemsByOwnerId(userId);
-        boolean isItemOwner = items.stream().anyMatch(item -> Objects.equals(item.getId(), booking.getItem().getId()));
+        boolean isItemOwner = booking.getItem().getOwner().getId().equals(userId);
         if (booking.getBooker().getId().equals(userId)
                 || (isItemOwner)) {
             return booking;
@@ -104,70 +122,146 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Booking> getBookings(Long userId, SearchStatus state, int from, int size) {
         if (userService.getUserById(userId) == null) {
             throw new DataNotFoundException("Пользователь не найден.");
         }
-        List<Booking> bookings;
-        Sort sortByDate = Sort.by(Sort.Direction.DESC, "start");
+        Slice<Booking> bookings;
+        Pageable page = PageRequest.of(from, size);
         switch (state) {
             case CURRENT:
-                bookings = repository.getBookingForBookerAndStartIsBeforeAndEndAfter(userId, LocalDateTime.now());
+                bookings = repository.getBookingForBookerAndStartIsBeforeAndEndAfter(userId, LocalDateTime.now(), page);
                 break;
             case PAST:
-                bookings = repository.getBookingForBookerAndEndBefore(userId, LocalDateTime.now());
+                bookings = repository.getBookingForBookerAndEndBefore(userId, LocalDateTime.now(), page);
                 break;
             case FUTURE:
-                bookings = repository.getBookingForBookerIdAndStartAfter(userId, LocalDateTime.now());
+                bookings = repository.getBookingForBookerIdAndStartAfter(userId, LocalDateTime.now(), page);
                 break;
             case WAITING:
-                bookings = repository.getBookingForBookerAndStatus(userId, Status.WAITING);
+                bookings = repository.getBookingForBookerAndStatus(userId, Status.WAITING, page);
                 break;
             case REJECTED:
-                bookings = repository.getBookingForBookerAndStatus(userId, Status.REJECTED);
+                bookings = repository.getBookingForBookerAndStatus(userId, Status.REJECTED, page);
                 break;
             default:
-                bookings = repository.findAllByBookerId(userId,
-                        PageRequest.of(from, size, sortByDate))
-                        .getContent();
+                bookings = repository.findAllByBookerId(userId, page);
         }
-        return bookings;
+        return bookings.getContent();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Booking> getBookingsByOwner(Long userId, SearchStatus state, int from, int size) {
         if (userService.getUserById(userId) == null) {
             throw new DataNotFoundException("Пользователь не найден.");
         }
-        List<Booking> bookings;
-        Sort sortByDate = Sort.by(Sort.Direction.DESC, "start");
+        Slice<Booking> bookings;
+        Pageable page = PageRequest.of(from, size);
         switch (state) {
             case CURRENT:
-                bookings = repository.getBookingByOwner_IdAndStartIsBeforeAndEndAfter(userId, LocalDateTime.now());
+                bookings = repository.getBookingByOwner_IdAndStartIsBeforeAndEndAfter(userId, LocalDateTime.now(), page);
                 break;
             case PAST:
-                bookings = repository.getBookingByOwner_IdAndEndBefore(userId, LocalDateTime.now());
+                bookings = repository.getBookingByOwner_IdAndEndBefore(userId, LocalDateTime.now(), page);
                 break;
             case FUTURE:
-                bookings = repository.getBookingByOwnerIdAndStartAfter(userId, LocalDateTime.now());
+                bookings = repository.getBookingByOwnerIdAndStartAfter(userId, LocalDateTime.now(), page);
                 break;
             case WAITING:
-                bookings = repository.getBookingByOwner_IdAndStatus(userId, Status.WAITING);
+                bookings = repository.getBookingByOwner_IdAndStatus(userId, Status.WAITING, page);
                 break;
             case REJECTED:
-                bookings = repository.getBookingByOwner_IdAndStatus(userId, Status.REJECTED);
+                bookings = repository.getBookingByOwner_IdAndStatus(userId, Status.REJECTED, page);
                 break;
             default:
-                bookings = repository.findAllByOwnerId(userId,
-                        PageRequest.of(from, size, sortByDate))
-                        .getContent();
+                bookings = repository.findAllByOwnerId(userId, page);
+        }
+        return bookings.getContent();
+
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getBookings(Long userId, SearchStatus state, BookingCursor after, int size) {
+        if (userService.getUserById(userId) == null) {
+            throw new DataNotFoundException("Пользователь не найден.");
+        }
+        LocalDateTime start = after.getStart();
+        Long id = after.getId();
+        Pageable page = PageRequest.of(0, size);
+        switch (state) {
+            case CURRENT:
+                return repository.findBookerCurrentPageAfter(userId, LocalDateTime.now(), start, id, page);
+            case PAST:
+                return repository.findBookerPastPageAfter(userId, LocalDateTime.now(), start, id, page);
+            case FUTURE:
+                return repository.findBookerFuturePageAfter(userId, LocalDateTime.now(), start, id, page);
+            case WAITING:
+                return repository.findBookerStatusPageAfter(userId, Status.WAITING, start, id, page);
+            case REJECTED:
+                return repository.findBookerStatusPageAfter(userId, Status.REJECTED, start, id, page);
+            default:
+                return repository.findBookerPageAfter(userId, start, id, page);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Booking> getBookingsByOwner(Long userId, SearchStatus state, BookingCursor after, int size) {
+        if (userService.getUserById(userId) == null) {
+            throw new DataNotFoundException("Пользователь не найден.");
+        }
+        LocalDateTime start = after.getStart();
+        Long id = after.getId();
+        Pageable page = PageRequest.of(0, size);
+        switch (state) {
+            case CURRENT:
+                return repository.findOwnerCurrentPageAfter(userId, LocalDateTime.now(), start, id, page);
+            case PAST:
+                return repository.findOwnerPastPageAfter(userId, LocalDateTime.now(), start, id, page);
+            case FUTURE:
+                return repository.findOwnerFuturePageAfter(userId, LocalDateTime.now(), start, id, page);
+            case WAITING:
+                return repository.findOwnerStatusPageAfter(userId, Status.WAITING, start, id, page);
+            case REJECTED:
+                return repository.findOwnerStatusPageAfter(userId, Status.REJECTED, start, id, page);
+            default:
+                return repository.findOwnerPageAfter(userId, start, id, page);
         }
-        return bookings;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Booking> getLastBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return groupByItem(repository.findLastBookingsForItems(itemIds, LocalDateTime.now()));
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Booking> getNextBookings(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return groupByItem(repository.findNextBookingsForItems(itemIds, LocalDateTime.now()));
     }
 
     @Override
-    public List<Booking> getBookingsForUser(Long itemId) {
-        return repository.findAllByItemId(itemId);
+    @Transactional(readOnly = true)
+    public ItemAvailability getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше окончания.");
+        }
+        itemService.getItemById(userId, itemId);
+        return schedules.get(itemId).availability(itemId, from, to);
+    }
+
+    private Map<Long, Booking> groupByItem(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(b -> b.getItem().getId(), Function.identity(), (first, second) -> first));
     }
 }
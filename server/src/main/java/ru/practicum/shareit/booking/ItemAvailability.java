@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemAvailability {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Period> busy;
+    private List<Period> free;
+
+    @Data
+    @AllArgsConstructor
+    public static class Period {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
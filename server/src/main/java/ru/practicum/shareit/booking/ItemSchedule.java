@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Расписание одной вещи: ожидающие и подтверждённые бронирования в дереве интервалов.
+ * Бронирования отсортированы по началу в массиве, который служит неявным сбалансированным
+ * деревом: узел - середина отрезка, в нём хранится наибольший конец бронирований поддерева.
+ * Поиск отбрасывает поддеревья, которые закончились до from или начинаются не раньше to,
+ * и находит k пересечений за O((k + 1) log n) независимо от длины бронирований.
+ * Массив перестраивается за O(n log n) при первом поиске после изменения: расписание
+ * заполняется при загрузке и после сохранения бронирования загружается заново.
+ */
+class ItemSchedule {
+    private static final Comparator<Interval> BY_START = Comparator.comparing((Interval interval) -> interval.start)
+            .thenComparing(interval -> interval.bookingId);
+
+    private final Map<Long, Interval> intervals = new HashMap<>();
+    private Interval[] sorted;
+    private LocalDateTime[] maxEnd;
+
+    synchronized void put(Booking booking) {
+        remove(booking.getId());
+        if ((booking.getStatus() != Status.WAITING && booking.getStatus() != Status.APPROVED)
+                || booking.getStart() == null || booking.getEnd() == null) {
+            return;
+        }
+        intervals.put(booking.getId(), new Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+        sorted = null;
+    }
+
+    synchronized void remove(Long bookingId) {
+        if (intervals.remove(bookingId) != null) {
+            sorted = null;
+        }
+    }
+
+    synchronized ItemAvailability availability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (sorted == null) {
+            build();
+        }
+        List<Interval> overlapping = new ArrayList<>();
+        collect(0, sorted.length, from, to, overlapping);
+        List<ItemAvailability.Period> busy = new ArrayList<>();
+        for (Interval interval : overlapping) {
+            LocalDateTime start = interval.start.isBefore(from) ? from : interval.start;
+            LocalDateTime clipped = interval.end.isAfter(to) ? to : interval.end;
+            ItemAvailability.Period last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !start.isAfter(last.getEnd())) {
+                if (clipped.isAfter(last.getEnd())) {
+                    last.setEnd(clipped);
+                }
+            } else {
+                busy.add(new ItemAvailability.Period(start, clipped));
+            }
+        }
+        List<ItemAvailability.Period> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (ItemAvailability.Period period : busy) {
+            if (cursor.isBefore(period.getStart())) {
+                free.add(new ItemAvailability.Period(cursor, period.getStart()));
+            }
+            cursor = period.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new ItemAvailability.Period(cursor, to));
+        }
+        return new ItemAvailability(itemId, from, to, busy, free);
+    }
+
+    private void build() {
+        sorted = intervals.values().toArray(new Interval[0]);
+        Arrays.sort(sorted, BY_START);
+        maxEnd = new LocalDateTime[sorted.length];
+        buildMaxEnd(0, sorted.length);
+    }
+
+    private LocalDateTime buildMaxEnd(int lo, int hi) {
+        if (lo >= hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        LocalDateTime max = sorted[mid].end;
+        LocalDateTime left = buildMaxEnd(lo, mid);
+        LocalDateTime right = buildMaxEnd(mid + 1, hi);
+        if (left != null && left.isAfter(max)) {
+            max = left;
+        }
+        if (right != null && right.isAfter(max)) {
+            max = right;
+        }
+        maxEnd[mid] = max;
+        return max;
+    }
+
+    // обход по возрастанию начала: бронирования, пересекающие [from, to), добавляются в порядке начала
+    private void collect(int lo, int hi, LocalDateTime from, LocalDateTime to, List<Interval> result) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (!maxEnd[mid].isAfter(from)) {
+            return;
+        }
+        collect(lo, mid, from, to, result);
+        Interval interval = sorted[mid];
+        if (!interval.start.isBefore(to)) {
+            return;
+        }
+        if (interval.end.isAfter(from)) {
+            result.add(interval);
+        }
+        collect(mid + 1, hi, from, to, result);
+    }
+
+    @AllArgsConstructor
+    private static final class Interval {
+        private final Long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+    }
+}
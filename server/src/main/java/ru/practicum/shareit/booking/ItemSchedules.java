@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Расписания вещей в памяти сервера. Загружаются при первом обращении и сбрасываются
+ * после фиксации бронирования вещи: загрузка, начатая до фиксации, могла его не увидеть,
+ * поэтому расписание не дополняется, а загружается заново. Срок жизни ограничивает
+ * расхождение с изменениями, сделанными другими экземплярами сервера.
+ */
+@Component
+@RequiredArgsConstructor
+class ItemSchedules {
+    private final BookingRepository repository;
+    private final Cache<Long, ItemSchedule> schedules = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    ItemSchedule get(Long itemId) {
+        return schedules.get(itemId, this::load);
+    }
+
+    // invalidate дожидается уже начатой загрузки расписания вещи и удаляет её результат
+    void bookingSaved(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedules.invalidate(itemId);
+                }
+            });
+        } else {
+            schedules.invalidate(itemId);
+        }
+    }
+
+    private ItemSchedule load(Long itemId) {
+        ItemSchedule schedule = new ItemSchedule();
+        repository.findAllByItemId(itemId).forEach(schedule::put);
+        return schedule;
+    }
+}
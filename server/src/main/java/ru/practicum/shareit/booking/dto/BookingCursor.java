@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Курсор для постраничного вывода бронирований: параметр after=<start,id>,
+ * где start и id берутся из последнего бронирования предыдущей страницы.
+ */
+@Data
+@AllArgsConstructor
+public class BookingCursor {
+    private LocalDateTime start;
+    private Long id;
+
+    public static BookingCursor parse(String token) {
+        int separator = token.lastIndexOf(',');
+        if (separator < 0) {
+            throw new ValidationException("Неверный курсор: " + token);
+        }
+        try {
+            return new BookingCursor(LocalDateTime.parse(token.substring(0, separator).trim()),
+                    Long.valueOf(token.substring(separator + 1).trim()));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new ValidationException("Неверный курсор: " + token);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package ru.practicum.shareit.booking.dto;
 
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.ItemAvailability;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.user.dto.UserMapper;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public class BookingMapper {
     public static BookingOutcomeDto toBookingDto(Booking booking) {
         return new BookingOutcomeDto(
@@ -15,4 +19,20 @@ public class BookingMapper {
              booking.getStatus().name()
         );
     }
+
+    public static ItemAvailabilityDto toItemAvailabilityDto(ItemAvailability availability) {
+        return new ItemAvailabilityDto(
+                availability.getItemId(),
+                availability.getFrom(),
+                availability.getTo(),
+                toPeriodDto(availability.getBusy()),
+                toPeriodDto(availability.getFree())
+        );
+    }
+
+    private static List<ItemAvailabilityDto.PeriodDto> toPeriodDto(List<ItemAvailability.Period> periods) {
+        return periods.stream()
+                .map(period -> new ItemAvailabilityDto.PeriodDto(period.getStart(), period.getEnd()))
+                .collect(Collectors.toList());
+    }
 }
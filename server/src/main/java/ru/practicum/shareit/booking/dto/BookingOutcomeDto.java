@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import java.time.LocalDateTime;
@@ -15,4 +16,16 @@ public class BookingOutcomeDto {
     private ItemOutcomeDto item;
     private UserDto booker;
     private String status;
+
+    public BookingOutcomeDto(Long id, LocalDateTime start, LocalDateTime end,
+                             Long itemId, String itemName, String itemDescription,
+                             ru.practicum.shareit.item.model.Status itemAvailable,
+                             Long ownerId, String ownerEmail, String ownerName, Long requestId,
+                             Long bookerId, String bookerEmail, String bookerName, Status status) {
+        this(id, start, end,
+                new ItemOutcomeDto(itemId, itemName, itemDescription, itemAvailable,
+                        ownerId, ownerEmail, ownerName, requestId),
+                new UserDto(bookerId, bookerEmail, bookerName),
+                status.name());
+    }
 }
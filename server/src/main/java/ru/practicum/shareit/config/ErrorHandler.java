@@ -1,14 +1,17 @@
 package ru.practicum.shareit.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolationException;
 
 @Slf4j
 @RestControllerAdvice
@@ -22,6 +25,15 @@ public class ErrorHandler {
         );
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleInvalidEmail(final ConstraintViolationException e) {
+        log.info("Ошибка валидации");
+        return new ErrorResponse(
+                "Ошибка валидации", e.getMessage()
+        );
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.NOT_FOUND)
     public ErrorResponse handleInvalidEmail(final DataNotFoundException e) {
@@ -39,4 +51,22 @@ public class ErrorHandler {
                 "Ошибка валидации", e.getMessage()
         );
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflict(final ConflictException e) {
+        log.info("Конфликт данных");
+        return new ErrorResponse(
+                "Конфликт данных", e.getMessage()
+        );
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleConflict(final DataIntegrityViolationException e) {
+        log.info("Нарушено ограничение целостности: {}", e.getMostSpecificCause().getMessage());
+        return new ErrorResponse(
+                "Конфликт данных", "Данные противоречат уже сохранённым."
+        );
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Строгий ETag (MD5 тела ответа) для GET-запросов к вещам, бронированиям, пользователям
+ * и запросам. На If-None-Match с тем же значением сервер отвечает 304 без тела.
+ */
+@Configuration
+public class EtagConfiguration {
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items", "/items/*", "/bookings", "/bookings/*",
+                "/users", "/users/*", "/requests", "/requests/*");
+        return registration;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Отправляет транзакции readOnly на реплику, всё остальное - на основную БД.
+ * Работает только под LazyConnectionDataSourceProxy: признак readOnly выставляется
+ * уже после начала транзакции, поэтому соединение должно браться при первом запросе.
+ * Чтения вне транзакции сервиса (findById репозитория, readOnly-методы сервисов) тоже уходят
+ * на реплику, поэтому методы, которые читают и затем пишут, помечены @Transactional.
+ */
+class ReadOnlyRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    ReadOnlyRoutingDataSource(DataSource primary, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Логирует вызовы методов репозиториев дольше порога и считает их в shareit.repository.slow.
+ * Время всех вызовов по методам собирает стандартная метрика spring.data.repository.invocations.
+ */
+@Slf4j
+public class SlowRepositoryInvocationLogger implements RepositoryMethodInvocationListener {
+    private final MeterRegistry registry;
+    private final Duration threshold;
+
+    public SlowRepositoryInvocationLogger(MeterRegistry registry, Duration threshold) {
+        this.registry = registry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        long duration = invocation.getDuration(TimeUnit.MILLISECONDS);
+        if (duration < threshold.toMillis()) {
+            return;
+        }
+        String repository = invocation.getRepositoryInterface().getSimpleName();
+        String method = invocation.getMethod().getName();
+        registry.counter("shareit.repository.slow", "repository", repository, "method", method).increment();
+        log.warn("Медленный вызов {}.{}: {} мс, результат {}", repository, method, duration,
+                invocation.getResult().getState());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.time.Duration;
+
+@Configuration
+public class SqlMetricsConfiguration {
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer(SqlStatementCounter counter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+    }
+
+    @Bean
+    public SqlMetricsFilter sqlMetricsFilter(SqlStatementCounter counter, MeterRegistry registry,
+                                             @Value("${shareit.sql.n-plus-one-threshold:10}") int nPlusOneThreshold,
+                                             @Value("${shareit.sql.request-budget:0}") int requestBudget,
+                                             @Value("${shareit.sql.sample-rate:1}") double sampleRate) {
+        return new SqlMetricsFilter(counter, registry, nPlusOneThreshold, requestBudget, sampleRate);
+    }
+
+    @Bean
+    public SlowRepositoryInvocationLogger slowRepositoryInvocationLogger(MeterRegistry registry,
+            @Value("${shareit.sql.slow-repository-threshold:200ms}") Duration threshold) {
+        return new SlowRepositoryInvocationLogger(registry, threshold);
+    }
+
+    @Bean
+    public static BeanPostProcessor slowRepositoryInvocationLoggerPostProcessor(
+            ObjectProvider<SlowRepositoryInvocationLogger> logger) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(
+                            factory -> factory.addInvocationListener(logger.getObject()));
+                }
+                return bean;
+            }
+        };
+    }
+}
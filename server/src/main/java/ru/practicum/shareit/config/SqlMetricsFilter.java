@@ -0,0 +1,75 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Для каждого HTTP-запроса пишет в метрику shareit.sql.statements число SQL-запросов к БД
+ * и предупреждает о повторах одного запроса (N+1) и о превышении бюджета запросов (0 - без бюджета).
+ * Считаются только запросы из выборки доли sampleRate (1 - все): в остальных счётчик не запущен,
+ * и Hibernate не собирает тексты SQL. N+1 и превышение бюджета повторяются от запроса к запросу
+ * одного эндпоинта, поэтому выборка их всё равно находит.
+ */
+@Slf4j
+public class SqlMetricsFilter extends OncePerRequestFilter {
+    private final SqlStatementCounter counter;
+    private final MeterRegistry registry;
+    private final int nPlusOneThreshold;
+    private final int requestBudget;
+    private final double sampleRate;
+
+    public SqlMetricsFilter(SqlStatementCounter counter, MeterRegistry registry, int nPlusOneThreshold,
+                            int requestBudget, double sampleRate) {
+        this.counter = counter;
+        this.registry = registry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.requestBudget = requestBudget;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            chain.doFilter(request, response);
+            return;
+        }
+        counter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Map<String, Integer> statements = counter.finish();
+            String method = request.getMethod();
+            String uri = Objects.toString(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE), "UNKNOWN");
+            int total = statements.values().stream().mapToInt(Integer::intValue).sum();
+            DistributionSummary.builder("shareit.sql.statements")
+                    .description("Число SQL-запросов на один HTTP-запрос")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(registry)
+                    .record(total);
+            if (requestBudget > 0 && total > requestBudget) {
+                registry.counter("shareit.sql.budget-exceeded", "method", method, "uri", uri).increment();
+                log.warn("{} {} выполнил {} SQL-запросов при бюджете {}", method, uri, total, requestBudget);
+            }
+            statements.forEach((sql, count) -> {
+                if (count >= nPlusOneThreshold) {
+                    registry.counter("shareit.sql.n-plus-one", "method", method, "uri", uri).increment();
+                    log.warn("Возможный N+1: {} {} выполнил {} раз запрос {}", method, uri, count, sql);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Считает SQL-запросы Hibernate, выполненные в текущем потоке между start() и finish().
+ * Один и тот же текст запроса, повторённый много раз за один HTTP-запрос, - признак N+1.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private final ThreadLocal<Map<String, Integer>> statements = new ThreadLocal<>();
+
+    public void start() {
+        statements.set(new LinkedHashMap<>());
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Map<String, Integer> current = statements.get();
+        if (current != null) {
+            current.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+
+    /**
+     * @return число выполнений каждого запроса с момента start(), в порядке первого выполнения
+     */
+    public Map<String, Integer> finish() {
+        Map<String, Integer> current = statements.get();
+        statements.remove();
+        return current == null ? Collections.emptyMap() : current;
+    }
+}
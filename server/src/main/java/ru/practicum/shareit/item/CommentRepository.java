@@ -1,12 +1,19 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     @Query("select c from Comment as c where c.item.id = :itemId order by c.created desc ")
     List<Comment> findAllByItemId(long itemId);
+
+    @EntityGraph(attributePaths = "author")
+    @Query("select c from Comment as c where c.item.id in :itemIds order by c.created desc ")
+    List<Comment> findAllByItemIdIn(Collection<Long> itemIds);
 }
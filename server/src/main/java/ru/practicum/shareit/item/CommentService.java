@@ -2,7 +2,9 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface CommentService {
 
@@ -10,5 +12,7 @@ public interface CommentService {
 
     List<Comment> findAllByItemId(Long itemId);
 
+    Map<Long, List<Comment>> getCommentsForItems(Collection<Long> itemIds);
+
     Comment addComment(Long userId, long itemId, String text);
 }
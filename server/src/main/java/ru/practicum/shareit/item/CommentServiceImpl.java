@@ -3,6 +3,7 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.dto.SearchStatus;
 import ru.practicum.shareit.exception.DataNotFoundException;
@@ -13,7 +14,11 @@ import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,16 +30,29 @@ public class CommentServiceImpl implements CommentService {
     private final ItemService itemService;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Comment> getComments(Long itemId) {
         return repository.findAllByItemId(itemId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Comment> findAllByItemId(Long itemId) {
         return repository.findAllByItemId(itemId);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<Comment>> getCommentsForItems(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return repository.findAllByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(c -> c.getItem().getId()));
+    }
+
+    @Override
+    @Transactional
     public Comment addComment(Long userId, long itemId, String text) {
         User user = userService.getUserById(userId);
         if (user == null) {
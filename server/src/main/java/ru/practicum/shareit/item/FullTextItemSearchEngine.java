@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Полнотекстовый поиск PostgreSQL по колонке items.search_vector (GIN индекс,
+ * см. db/migration/postgresql). Каждое слово запроса ищется как префикс слова вещи,
+ * результаты упорядочены по ts_rank. Нативный запрос выбирает только id страницы,
+ * вещи вместе с владельцами загружаются вторым запросом по первичному ключу.
+ * <p>
+ * В отличие от поиска like, найти часть слова из середины ("рель" в "дрель") индекс не может.
+ * Если ни одна доступная вещь не нашлась по префиксам, запрос выполняется как поиск подстроки
+ * (см. {@link LikeItemSearchEngine}) - без индекса, но с прежним результатом.
+ */
+@Component
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository repository;
+    private final LikeItemSearchEngine substringSearch;
+
+    public FullTextItemSearchEngine(ItemRepository repository) {
+        this.repository = repository;
+        this.substringSearch = new LikeItemSearchEngine(repository);
+    }
+
+    @Override
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        String query = toTsQuery(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = start == null
+                ? repository.searchItemIdsFullText(query, PageRequest.of(from, size))
+                : repository.searchFreeItemIdsFullText(query, start, end, PageRequest.of(from, size));
+        if (ids.isEmpty()) {
+            // пустая страница: либо страницы кончились, либо слова встречаются только внутри слов вещей
+            return repository.existsItemFullText(query)
+                    ? Collections.emptyList()
+                    : substringSearch.search(text, start, end, from, size);
+        }
+        Map<Long, Item> items = repository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    static String toTsQuery(String text) {
+        return ItemSearchEngine.words(text)
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.Status;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по инвертированному индексу в памяти: слово -> отсортированные id доступных вещей.
+ * Индекс строится при старте и обновляется сервисом при добавлении, изменении и удалении вещей.
+ * Слова запроса ищутся как префиксы, страница выбирается в памяти, из базы по первичному ключу
+ * загружаются только вещи этой страницы. Если задан период, занятые в него вещи отсеиваются
+ * одним запросом к bookings на пачку кандидатов.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "index")
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final int BUSY_CHECK_BATCH = 1000;
+    private final ItemRepository repository;
+    private final BookingRepository bookingRepository;
+    private final NavigableMap<String, ItemPostings> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> wordsByItem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void build() {
+        List<Item> items = repository.findAll();
+        lock.writeLock().lock();
+        try {
+            items.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс построен: {} вещей, {} слов", wordsByItem.size(), postings.size());
+    }
+
+    @Override
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        long[] ids = find(text);
+        List<Long> pageIds = start == null
+                ? page(ids, (long) from * size, size)
+                : freePage(ids, start, end, (long) from * size, size);
+        if (pageIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return repository.findAllById(pageIds).stream()
+                .sorted(Comparator.comparing(Item::getId))
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> page(long[] ids, long offset, int size) {
+        int first = (int) Math.min(offset, ids.length);
+        int last = Math.min(first + size, ids.length);
+        return Arrays.stream(ids, first, last).boxed().collect(Collectors.toList());
+    }
+
+    // занятые в период вещи отсеиваются пачками кандидатов, пока страница не заполнится
+    private List<Long> freePage(long[] ids, LocalDateTime start, LocalDateTime end, long offset, int size) {
+        List<Long> page = new ArrayList<>();
+        long skipped = 0;
+        for (int first = 0; first < ids.length && page.size() < size; first += BUSY_CHECK_BATCH) {
+            List<Long> candidates = page(ids, first, BUSY_CHECK_BATCH);
+            Set<Long> busy = new HashSet<>(bookingRepository.findBusyItemIds(candidates, start, end));
+            for (Long id : candidates) {
+                if (busy.contains(id)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else if (page.size() < size) {
+                    page.add(id);
+                }
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public void itemSaved(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            index(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void itemDeleted(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long[] find(String text) {
+        List<String> words = ItemSearchEngine.words(text).distinct().collect(Collectors.toList());
+        if (words.isEmpty()) {
+            return new long[0];
+        }
+        lock.readLock().lock();
+        try {
+            long[] result = null;
+            for (String word : words) {
+                long[] matches = ItemPostings.union(postings.subMap(word, true, word + Character.MAX_VALUE, true).values());
+                result = result == null ? matches : ItemPostings.intersect(result, matches);
+                if (result.length == 0) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void index(Item item) {
+        if (item.getAvailable() != Status.AVAILABLE) {
+            return;
+        }
+        Set<String> words = ItemSearchEngine.words(item.getName() + " " + item.getDescription())
+                .collect(Collectors.toSet());
+        words.forEach(word -> postings.computeIfAbsent(word, w -> new ItemPostings()).add(item.getId()));
+        wordsByItem.put(item.getId(), words);
+    }
+
+    private void remove(Long itemId) {
+        Set<String> words = wordsByItem.remove(itemId);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            ItemPostings ids = postings.get(word);
+            ids.remove(itemId);
+            if (ids.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+}
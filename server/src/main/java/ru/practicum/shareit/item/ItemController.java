@@ -2,21 +2,29 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
+@Validated
 public class ItemController {
     private final ItemService itemService;
     private final BookingService bookingService;
@@ -27,15 +35,23 @@ public class ItemController {
                                         @RequestParam(name = "from", defaultValue = "0") int from,
                                         @RequestParam(name = "size", defaultValue = "10") int size) {
         log.info("Получен запрос - показать список вещей пользователя '{}' по {} элементов на странице {}", userId, size, from);
-        return itemService.getItems(userId, from / size, size).stream()
-
+        List<Item> items = itemService.getItems(userId, from / size, size);
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, Booking> lastBookings = bookingService.getLastBookings(itemIds);
+        Map<Long, Booking> nextBookings = bookingService.getNextBookings(itemIds);
+        Map<Long, List<Comment>> comments = commentService.getCommentsForItems(itemIds);
+        return items.stream()
                 .map(item -> {
-                            List<Booking> bookings = bookingService.getBookingsForUser(item.getId());
-                            List<Comment> comments = commentService.getComments(item.getId());
-                            List<ItemOutcomeInfoDto.CommentDto> commentsDto = comments.stream()
+                            List<ItemOutcomeInfoDto.CommentDto> commentsDto = comments
+                                    .getOrDefault(item.getId(), Collections.emptyList()).stream()
                                     .map(CommentMapper::toCommentDto)
                                     .collect(Collectors.toList());
-                            return ItemMapper.toItemInfoDto(item, bookings, commentsDto);
+                            return ItemMapper.toItemInfoDto(item,
+                                    lastBookings.get(item.getId()),
+                                    nextBookings.get(item.getId()),
+                                    commentsDto);
                         })
                 .collect(Collectors.toList());
     }
@@ -53,6 +69,15 @@ public class ItemController {
         ));
     }
 
+    @PostMapping("/batch")
+    public List<ItemOutcomeDto> addBatch(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                         @RequestBody List<@Valid ItemIncomeDto> dto) {
+        log.info("Получен запрос на добавление {} итемов пользователю '{}'", dto.size(), userId);
+        return itemService.addNewItems(userId, dto).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
     @PatchMapping("/{itemId}")
     public ItemOutcomeDto updateItem(@PathVariable("itemId") long itemId,
                                     @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -76,10 +101,11 @@ public class ItemController {
                 .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());;
         if (itemService.userIsOwnerOfItem(userId, itemId)) {
-            List<Booking> bookings = bookingService.getBookingsForUser(item.getId());
-
-            ItemOutcomeInfoDto itemDto = ItemMapper.toItemInfoDto(item, bookings, commentsDto);
-            return itemDto;
+            List<Long> itemIds = List.of(item.getId());
+            return ItemMapper.toItemInfoDto(item,
+                    bookingService.getLastBookings(itemIds).get(item.getId()),
+                    bookingService.getNextBookings(itemIds).get(item.getId()),
+                    commentsDto);
         } else {
             return ItemMapper.toItemDto2(item, commentsDto);
         }
@@ -97,13 +123,24 @@ public class ItemController {
     public List<ItemOutcomeDto> searchItem(@RequestHeader("X-Sharer-User-Id") long userId,
                                           @RequestParam String text,
                                            @RequestParam(name = "from", defaultValue = "0") int from,
-                                           @RequestParam(name = "size", defaultValue = "10") int size) {
+                                           @RequestParam(name = "size", defaultValue = "10") int size,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
         log.info("Получен запрос на поиск итема по содержанию текста '{}' у пользователя '{}', {} элементов на {} странице",text, userId, size, from);
-        return itemService.searchItem(text, from / size, size).stream()
+        return itemService.searchItem(text, start, end, from / size, size).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@RequestHeader("X-Sharer-User-Id") long userId,
+                                               @PathVariable long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос от пользователя '{}' - занятость итема '{}' с {} по {}", userId, itemId, from, to);
+        return BookingMapper.toItemAvailabilityDto(bookingService.getAvailability(userId, itemId, from, to));
+    }
+
     @PostMapping("/{itemId}/comment")
     public ItemOutcomeInfoDto.CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long userId, @PathVariable long itemId,
                                                     @Valid @RequestBody ItemOutcomeInfoDto.CommentDto dto) {
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Отсортированный список id вещей без упаковки в Long.
+ */
+public final class ItemPostings {
+    private long[] ids = new long[4];
+    private int size;
+
+    public boolean add(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Объединение всех списков сразу: id складываются в один массив, сортируются и очищаются
+     * от повторов - O(N log N) по общему числу id. Попарное объединение копировало бы растущий
+     * результат для каждого списка, и короткий префикс с тысячами слов обходился бы квадратично.
+     */
+    public static long[] union(Collection<ItemPostings> postings) {
+        if (postings.size() == 1) {
+            return postings.iterator().next().toArray();
+        }
+        int total = 0;
+        for (ItemPostings list : postings) {
+            total += list.size;
+        }
+        long[] result = new long[total];
+        int k = 0;
+        for (ItemPostings list : postings) {
+            System.arraycopy(list.ids, 0, result, k, list.size);
+            k += list.size;
+        }
+        Arrays.sort(result);
+        int unique = 0;
+        for (long id : result) {
+            if (unique == 0 || result[unique - 1] != id) {
+                result[unique++] = id;
+            }
+        }
+        return Arrays.copyOf(result, unique);
+    }
+
+    public static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[k++] = left[i++];
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+}
@@ -2,38 +2,105 @@ package ru.practicum.shareit.item;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Optional<Item> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    List<Item> findAllById(Iterable<Long> ids);
+
     @Modifying
     @Query("delete from Item as i " +
             "where i.id = :id and i.owner.id = :userId")
-    void deleteByUserIdAndItemId(Long userId, Long id);
+    int deleteByUserIdAndItemId(Long userId, Long id);
 
+    @EntityGraph(attributePaths = "owner")
     @Query("select i from Item as i " +
             "where (upper(i.name) like upper(concat('%', :text, '%')) " +
             " or upper(i.description) like upper(concat('%', :text, '%'))) " +
             "and i.available = ru.practicum.shareit.item.model.Status.AVAILABLE ")
     Page<Item> searchItem(String text, Pageable pageable);
 
+    @EntityGraph(attributePaths = "owner")
+    @Query("select i from Item as i " +
+            "where (upper(i.name) like upper(concat('%', :text, '%')) " +
+            " or upper(i.description) like upper(concat('%', :text, '%'))) " +
+            "and i.available = ru.practicum.shareit.item.model.Status.AVAILABLE " +
+            "and not exists (select b from Booking as b where b.item = i " +
+            "and b.start < :end and b.end > :start " +
+            "and b.status in (ru.practicum.shareit.booking.Status.APPROVED, " +
+            "ru.practicum.shareit.booking.Status.WAITING))")
+    Slice<Item> searchFreeItem(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(value = "select i.id from items as i " +
+            "where i.search_vector @@ to_tsquery('simple', :query) " +
+            "and i.is_available = 'AVAILABLE' " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', :query)) desc, i.id",
+            nativeQuery = true)
+    List<Long> searchItemIdsFullText(String query, Pageable pageable);
+
+    @Query(value = "select i.id from items as i " +
+            "where i.search_vector @@ to_tsquery('simple', :query) " +
+            "and i.is_available = 'AVAILABLE' " +
+            "and not exists (select 1 from bookings as b where b.item_id = i.id " +
+            "and b.start_date < :end and b.end_date > :start and b.status in ('APPROVED', 'WAITING')) " +
+            "order by ts_rank(i.search_vector, to_tsquery('simple', :query)) desc, i.id",
+            nativeQuery = true)
+    List<Long> searchFreeItemIdsFullText(String query, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(value = "select exists(select 1 from items as i " +
+            "where i.search_vector @@ to_tsquery('simple', :query) " +
+            "and i.is_available = 'AVAILABLE')",
+            nativeQuery = true)
+    boolean existsItemFullText(String query);
+
+    @EntityGraph(attributePaths = "owner")
     @Query("select i from Item as i " +
             "where i.owner.id = :userId order by i.id")
     List<Item> findAllByUserId(Long userId);
 
+    @EntityGraph(attributePaths = "owner")
     @Query("select i from Item as i " +
             "where i.owner.id = :userId order by i.id")
     Page<Item> findAllByUserIdPage(Long userId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "owner")
     @Query("select i from Item as i " +
             "where i.owner.id = :userId order by i.id")
     List<Item> findByOwnerId(Long userId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item as i where i.id = :id")
+    Optional<Item> findByIdForUpdate(Long id);
+
     @Query("select i from Item as i " +
             "where i.request != null and i.request.id = :requestId")
     List<Item> findAllByRequestId(long requestId);
+
+    @Query("select i.id from Item as i left join i.request as r " +
+            "where i.owner.id = :userId or r.requestor.id = :userId")
+    List<Long> findIdsDeletedWithUser(Long userId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemOutcomeDto(i.id, i.name, i.description, i.available, " +
+            "o.id, o.email, o.name, i.request.id) " +
+            "from Item as i join i.owner as o " +
+            "where i.request.id in :requestIds order by i.id")
+    List<ItemOutcomeDto> findItemDtosByRequestIdIn(Collection<Long> requestIds);
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+public interface ItemSearchEngine {
+    String PROPERTY = "shareit.item.search.engine";
+
+    // start и end - период, в который вещь должна быть свободна; если null, период не учитывается
+    List<Item> search(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    default void itemSaved(Item item) {
+    }
+
+    default void itemDeleted(Long itemId) {
+    }
+
+    static Stream<String> words(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word.toLowerCase(Locale.ROOT));
+    }
+}
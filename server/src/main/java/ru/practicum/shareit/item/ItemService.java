@@ -1,14 +1,21 @@
 package ru.practicum.shareit.item;
 
+import ru.practicum.shareit.item.dto.ItemIncomeDto;
+import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
     List<Item> getItems(Long userId, int from, int size);
 
     List<Item> getAllItems(Long userId);
 
+    List<Item> addNewItems(Long userId, List<ItemIncomeDto> items);
+
     Item addNewItem(Long userId, String name, String description, Boolean available, Long requestId);
 
     void deleteItem(Long userId, Long itemId);
@@ -17,11 +24,13 @@ public interface ItemService {
 
     Item getItemById(Long userId, long itemId);
 
+    Item getItemForBooking(long itemId);
+
     List<Item> findItemsByOwnerId(Long userId);
 
-    List<Item> searchItem(String text, int from, int size);
+    List<Item> searchItem(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     boolean userIsOwnerOfItem(long userId, Long itemId);
 
-    List<Item> findItemsByRequestId(long requestId);
+    Map<Long, List<ItemOutcomeDto>> findItemsByRequestIds(Collection<Long> requestIds);
 }
@@ -3,19 +3,32 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemIncomeDto;
+import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Status;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.user.UserDeletedEvent;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,19 +37,23 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository repository;
     private final UserService userService;
     private final ItemRequestService itemRequestService;
+    private final ItemSearchEngine searchEngine;
 
     @Override
+    @Transactional(readOnly = true)
     public List<Item> getItems(Long userId, int from, int size) {
         Sort sortById = Sort.by(Sort.Direction.ASC, "id");
         return repository.findAllByUserIdPage(userId, PageRequest.of(from, size, sortById)).getContent();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Item> getAllItems(Long userId) {
         return repository.findAllByUserId(userId);
     }
 
     @Override
+    @Transactional
     public Item addNewItem(Long userId, String name, String description, Boolean available, Long requestId) {
         User user = userService.getUserById(userId);
         Status status;
@@ -45,7 +62,7 @@ public class ItemServiceImpl implements ItemService {
         } else {
             status = Status.UNAVAILABLE;
         }
-        return repository.save(new Item(
+        Item item = repository.save(new Item(
                 null,
                 name,
                 description,
@@ -53,14 +70,49 @@ public class ItemServiceImpl implements ItemService {
                 user,
                 requestId != null ? itemRequestService.getRequestById(userId, requestId) : null
         ));
+        afterCommit(() -> searchEngine.itemSaved(item));
+        return item;
+    }
+
+    @Override
+    @Transactional
+    public List<Item> addNewItems(Long userId, List<ItemIncomeDto> items) {
+        User user = userService.getUserById(userId);
+        Map<Long, ItemRequest> requests = new HashMap<>();
+        List<Item> newItems = items.stream()
+                .map(dto -> new Item(
+                        null,
+                        dto.getName(),
+                        dto.getDescription(),
+                        dto.getAvailable() ? Status.AVAILABLE : Status.UNAVAILABLE,
+                        user,
+                        dto.getRequestId() != null ? requests.computeIfAbsent(dto.getRequestId(),
+                                requestId -> itemRequestService.getRequestById(userId, requestId)) : null))
+                .collect(Collectors.toList());
+        // id берутся блоками из items_seq, поэтому вставки уходят пачками по hibernate.jdbc.batch_size
+        List<Item> saved = repository.saveAll(newItems);
+        afterCommit(() -> saved.forEach(searchEngine::itemSaved));
+        log.info("Пользователь '{}' добавил {} вещей", userId, saved.size());
+        return saved;
     }
 
     @Override
+    @Transactional
     public void deleteItem(Long userId, Long itemId) {
-        repository.deleteByUserIdAndItemId(userId, itemId);
+        if (repository.deleteByUserIdAndItemId(userId, itemId) > 0) {
+            afterCommit(() -> searchEngine.itemDeleted(itemId));
+        }
+    }
+
+    @EventListener
+    public void userDeleted(UserDeletedEvent event) {
+        // вещи пользователя и ответы на его запросы база удаляет каскадом, мимо deleteItem
+        List<Long> itemIds = repository.findIdsDeletedWithUser(event.getUserId());
+        afterCommit(() -> itemIds.forEach(searchEngine::itemDeleted));
     }
 
     @Override
+    @Transactional
     public Item updateItem(Long userId, Long id, String name, String description, Boolean available) {
         Item updateItem = repository.getById(id);
         if (updateItem == null) {
@@ -84,10 +136,13 @@ public class ItemServiceImpl implements ItemService {
             }
             updateItem.setAvailable(status);
         }
-        return repository.save(updateItem);
+        Item item = repository.save(updateItem);
+        afterCommit(() -> searchEngine.itemSaved(item));
+        return item;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Item getItemById(Long userId, long itemId) {
         if (userService.getUserById(userId) == null) {
             throw new DataNotFoundException("Пользователь не найден.");
@@ -100,6 +155,15 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @Transactional
+    public Item getItemForBooking(long itemId) {
+        // блокировка строки вещи: бронирования одной вещи создаются по очереди, разных вещей - параллельно
+        return repository.findByIdForUpdate(itemId)
+                .orElseThrow(() -> new DataNotFoundException("Вещь с таким id не найдена."));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Item> findItemsByOwnerId(Long userId) {
         if (userService.getUserById(userId) == null) {
             throw new DataNotFoundException("Владелец вещи не найден");
@@ -108,15 +172,19 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<Item> searchItem(String text, int from, int size) {
+    @Transactional(readOnly = true)
+    public List<Item> searchItem(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        if ((start == null) != (end == null) || (start != null && !start.isBefore(end))) {
+            throw new ValidationException("Период поиска задан неверно.");
+        }
         if (text.isEmpty()) {
             return Collections.emptyList();
         }
-        Sort sortById = Sort.by(Sort.Direction.ASC, "id");
-        return repository.searchItem(text, PageRequest.of(from, size, sortById)).getContent();
+        return searchEngine.search(text, start, end, from, size);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean userIsOwnerOfItem(long userId, Long itemId) {
         if (userService.getUserById(userId).getId().equals(repository.getReferenceById(itemId).getOwner().getId())) {
             return true;
@@ -126,7 +194,25 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Item> findItemsByRequestId(long requestId) {
-        return repository.findAllByRequestId(requestId);
+    public Map<Long, List<ItemOutcomeDto>> findItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return repository.findItemDtosByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(ItemOutcomeDto::getRequestId));
+    }
+
+    // индекс поиска меняется только после фиксации: откаченные изменения в него не попадают
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
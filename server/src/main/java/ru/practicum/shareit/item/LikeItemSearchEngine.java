@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Поиск подстроки через like по названию и описанию. Не использует индексы,
+ * зато работает на любой базе, поэтому используется в тестах на H2.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = ItemSearchEngine.PROPERTY, havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository repository;
+
+    @Override
+    public List<Item> search(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        Sort sortById = Sort.by(Sort.Direction.ASC, "id");
+        if (start == null) {
+            return repository.searchItem(text, PageRequest.of(from, size, sortById)).getContent();
+        }
+        return repository.searchFreeItem(text, start, end, PageRequest.of(from, size, sortById)).getContent();
+    }
+}
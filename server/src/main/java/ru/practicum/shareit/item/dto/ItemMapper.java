@@ -5,9 +5,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Status;
 import ru.practicum.shareit.user.dto.UserMapper;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 
 public class ItemMapper {
@@ -27,18 +25,9 @@ public class ItemMapper {
     }
 
     public static ItemOutcomeInfoDto toItemInfoDto(Item item,
-                                                             List<Booking> bookings,
-                                                             List<ItemOutcomeInfoDto.CommentDto> comments) {
-        Booking lastBooking = bookings.stream()
-                .filter(b -> ((b.getStart().isBefore(LocalDateTime.now())) || (b.getEnd().isBefore(LocalDateTime.now()))))
-                .max(Comparator.comparing(Booking::getStart)).orElse(null);
-        Booking nextBooking = bookings.stream()
-                .filter(b -> ((b.getStart().isAfter(LocalDateTime.now()))
-                        &&
-                        (!b.getStatus().equals(ru.practicum.shareit.booking.Status.REJECTED))
-                        &&
-                        (!b.getStatus().equals(ru.practicum.shareit.booking.Status.CANCELED))))
-                .min(Comparator.comparing(Booking::getStart)).orElse(null);
+                                                   Booking lastBooking,
+                                                   Booking nextBooking,
+                                                   List<ItemOutcomeInfoDto.CommentDto> comments) {
         return new ItemOutcomeInfoDto(
                 item.getId(),
                 item.getName(),
@@ -46,16 +35,16 @@ public class ItemMapper {
                 item.getAvailable() == Status.AVAILABLE,
                 UserMapper.toUserDto(item.getOwner()),
                 item.getRequest() != null ? item.getRequest().getId() : null,
-                lastBooking != null ? new ItemOutcomeInfoDto.BookingDto(
-                        lastBooking.getId(),
-                        lastBooking.getBooker().getId(),
-                        lastBooking.getStart(),
-                        lastBooking.getEnd()) : null,
-                nextBooking != null ? new ItemOutcomeInfoDto.BookingDto(
-                        nextBooking.getId(),
-                        nextBooking.getBooker().getId(),
-                        nextBooking.getStart(),
-                        nextBooking.getEnd()) : null,
+                toBookingDto(lastBooking),
+                toBookingDto(nextBooking),
                 comments.isEmpty() ? new ArrayList<>() : comments);
     }
-}
\ No newline at end of file
+
+    private static ItemOutcomeInfoDto.BookingDto toBookingDto(Booking booking) {
+        return booking != null ? new ItemOutcomeInfoDto.BookingDto(
+                booking.getId(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd()) : null;
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import ru.practicum.shareit.item.model.Status;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.constraints.NotBlank;
@@ -19,4 +20,9 @@ public class ItemOutcomeDto {
     private Boolean available;
     private UserDto owner;
     private Long requestId;
+
+    public ItemOutcomeDto(Long id, String name, String description, Status available,
+                          Long ownerId, String ownerEmail, String ownerName, Long requestId) {
+        this(id, name, description, available == Status.AVAILABLE, new UserDto(ownerId, ownerEmail, ownerName), requestId);
+    }
 }
@@ -4,7 +4,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.ItemService;
-import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestIncomeDto;
@@ -12,7 +11,9 @@ import ru.practicum.shareit.request.dto.ItemRequestInfoDto;
 import ru.practicum.shareit.request.dto.ItemRequestMapper;
 
 import javax.validation.Valid;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,14 +34,7 @@ public class ItemRequestController {
     @GetMapping
     public List<ItemRequestInfoDto> getRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         log.info("Получен запрос - показать список запросов пользователя '{}'", userId);
-        return itemRequestService.getRequests(userId).stream()
-                .map(r -> {
-                            List<ItemOutcomeDto> itemsDto = itemService.findItemsByRequestId(r.getId()).stream()
-                                    .map(ItemMapper::toItemDto)
-                                    .collect(Collectors.toList());
-                            return ItemRequestMapper.toItemRequestDto2(r, itemsDto);
-                        })
-                .collect(Collectors.toList());
+        return toItemRequestInfoDto(itemRequestService.getRequests(userId));
     }
 
     @GetMapping("/all")
@@ -48,23 +42,23 @@ public class ItemRequestController {
                                                    @RequestParam(name = "from", defaultValue = "0") int from,
                                                    @RequestParam(name = "size", defaultValue = "10") int size) {
         log.info("Получен запрос от пользователя '{}'- показать {} запросов других пользователей на {} странице ", userId, size, from);
-        return itemRequestService.getAllRequests(userId, from / size, size).stream()
-                .map(r -> {
-                    List<ItemOutcomeDto> itemsDto = itemService.findItemsByRequestId(r.getId()).stream()
-                            .map(ItemMapper::toItemDto)
-                            .collect(Collectors.toList());
-                    return ItemRequestMapper.toItemRequestDto2(r, itemsDto);
-                })
-                .collect(Collectors.toList());
+        return toItemRequestInfoDto(itemRequestService.getAllRequests(userId, from / size, size));
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestInfoDto getRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable("requestId") Long requestId) {
         log.info("Получен запрос от пользователя '{}' - показать запрос '{}'", userId, requestId);
-        List<ItemOutcomeDto> itemsDto = itemService.findItemsByRequestId(requestId).stream()
-                .map(ItemMapper::toItemDto)
+        return toItemRequestInfoDto(List.of(itemRequestService.getRequestById(userId, requestId))).get(0);
+    }
+
+    private List<ItemRequestInfoDto> toItemRequestInfoDto(List<ItemRequest> requests) {
+        List<Long> requestIds = requests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemOutcomeDto>> items = itemService.findItemsByRequestIds(requestIds);
+        return requests.stream()
+                .map(r -> ItemRequestMapper.toItemRequestDto2(r, items.getOrDefault(r.getId(), Collections.emptyList())))
                 .collect(Collectors.toList());
-        return ItemRequestMapper.toItemRequestDto2(itemRequestService.getRequestById(userId, requestId), itemsDto);
     }
 }
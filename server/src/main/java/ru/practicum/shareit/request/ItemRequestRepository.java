@@ -1,7 +1,7 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
@@ -14,5 +14,5 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     @Query("select r from ItemRequest as r " +
             "where r.requestor.id != :userId order by r.createdTime desc ")
-    Page<ItemRequest> findAll(Long userId, Pageable pageable);
+    Slice<ItemRequest> findAll(Long userId, Pageable pageable);
 }
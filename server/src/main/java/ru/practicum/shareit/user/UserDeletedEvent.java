@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+
+/**
+ * Публикуется в транзакции удаления пользователя до самого удаления: его вещи и ответы
+ * на его запросы база удаляет каскадом, и слушатели ещё могут их прочитать.
+ */
+@Value
+public class UserDeletedEvent {
+    Long userId;
+}
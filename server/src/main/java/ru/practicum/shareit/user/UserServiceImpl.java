@@ -2,28 +2,41 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 
+import static ru.practicum.shareit.config.CacheConfiguration.USERS_CACHE;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final ApplicationEventPublisher events;
+    private final CacheManager cacheManager;
 
     @Override
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return repository.findAll();
     }
 
     @Override
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#id", condition = "#id != null")
     public User saveUser(Long id, String email, String name) {
         return repository.save(new User(id, email, name));
     }
 
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
+    @Transactional
     public User updateUser(Long userId, User user) {
         if (user == null) {
             throw new DataNotFoundException("Пользователь не найден.");
@@ -48,12 +61,23 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public User getUserById(Long userId) {
-        return repository.findById(userId).orElseThrow(() -> new DataNotFoundException("Пользователь не найден"));
+        Cache cache = cacheManager.getCache(USERS_CACHE);
+        UserSnapshot user = cache.get(userId, UserSnapshot.class);
+        if (user == null) {
+            user = UserSnapshot.of(repository.findById(userId)
+                    .orElseThrow(() -> new DataNotFoundException("Пользователь не найден")));
+            cache.put(userId, user);
+        }
+        return user.toUser();
     }
 
     @Override
+    @CacheEvict(cacheNames = USERS_CACHE, key = "#userId")
+    @Transactional
     public void deleteUserById(Long userId) {
+        events.publishEvent(new UserDeletedEvent(userId));
         repository.deleteById(userId);
     }
 }
\ No newline at end of file
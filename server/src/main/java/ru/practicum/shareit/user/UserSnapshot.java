@@ -0,0 +1,23 @@
+package ru.practicum.shareit.user;
+
+import lombok.Value;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Значение кэша пользователей. User - изменяемая сущность JPA, и один её объект в кэше
+ * делили бы все запросы; снимок неизменяем, каждый вызов получает из него новый User.
+ */
+@Value
+class UserSnapshot {
+    Long id;
+    String email;
+    String name;
+
+    static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getEmail(), user.getName());
+    }
+
+    User toUser() {
+        return new User(id, email, name);
+    }
+}
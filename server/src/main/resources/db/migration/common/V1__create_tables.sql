@@ -1,5 +1,4 @@
-drop table if exists users cascade;
-create table if not exists users
+create table users
 (
     id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
     name varchar(50) not null,
@@ -7,8 +6,7 @@ create table if not exists users
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
     );
 
-drop table if exists requests cascade;
-create table if not exists requests
+create table requests
 (
     id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
     description varchar(200) not null,
@@ -17,8 +15,7 @@ create table if not exists requests
     foreign key (requestor_id) references users (id) on delete cascade
     );
 
-drop table if exists items cascade;
-create table if not exists items
+create table items
 (
     id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
     name varchar(50) not null,
@@ -30,8 +27,7 @@ create table if not exists items
     foreign key (request_id) references requests (id) on delete cascade
     );
 
-drop table if exists bookings cascade;
-create table if not exists bookings
+create table bookings
 (
     id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
     start_date TIMESTAMP WITHOUT TIME ZONE,
@@ -43,8 +39,7 @@ create table if not exists bookings
     foreign key (booker_id) references users (id) on delete cascade
     );
 
-drop table if exists comments cascade;
-create table if not exists comments (
+create table comments (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     text VARCHAR(500) NOT NULL,
     item_id BIGINT NOT NULL,
@@ -53,4 +48,4 @@ create table if not exists comments (
     CONSTRAINT PK_COMMENTS PRIMARY KEY (id),
     CONSTRAINT FK_COMMENT_FOR_ITEM FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT FK_COMMENT_FOR_USER FOREIGN KEY (author_id) REFERENCES users (id)
-    );
\ No newline at end of file
+    );
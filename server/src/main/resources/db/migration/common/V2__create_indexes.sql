@@ -0,0 +1,8 @@
+create index bookings_booker_start_idx on bookings (booker_id, start_date desc, id desc);
+create index bookings_item_start_idx on bookings (item_id, start_date);
+create index items_owner_idx on items (owner_id, id);
+create index items_request_idx on items (request_id);
+create index comments_item_created_idx on comments (item_id, created desc);
+create index comments_author_idx on comments (author_id);
+create index requests_requestor_created_idx on requests (requestor_id, created_time desc);
+create index requests_created_idx on requests (created_time desc);
@@ -0,0 +1,5 @@
+-- то же, что postgresql/V5: id вещей выдаёт последовательность с шагом 50.
+create sequence items_seq increment by 50;
+
+alter table items alter column id drop identity;
+alter table items alter column id set default next value for items_seq;
@@ -0,0 +1,4 @@
+alter table items add column search_vector tsvector
+    generated always as (to_tsvector('simple', name || ' ' || description)) stored;
+
+create index items_search_vector_idx on items using gin (search_vector);
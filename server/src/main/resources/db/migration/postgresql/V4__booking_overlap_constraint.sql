@@ -0,0 +1,52 @@
+create extension if not exists btree_gist;
+
+-- До этой миграции пересекающиеся бронирования одной вещи не запрещались, и с такими строками
+-- ограничение не создаётся. Ожидающие бронирования разрешаются так, как их разрешил бы владелец:
+-- отклоняется ожидающее, которое пересекается с подтверждённым или с более ранним ожидающим.
+-- Пересечения подтверждённых бронирований автоматически не разрешить: миграция останавливается,
+-- лишние бронирования нужно отменить вручную (status = 'CANCELED') и запустить приложение снова.
+do $$
+declare
+    waiting record;
+    conflict record;
+begin
+    for waiting in
+        select b.id, b.item_id, b.start_date, b.end_date
+        from bookings b
+        where b.status = 'WAITING'
+          and exists (select 1
+                      from bookings other
+                      where other.item_id = b.item_id
+                        and other.id <> b.id
+                        and other.status in ('WAITING', 'APPROVED')
+                        and tsrange(other.start_date, other.end_date) && tsrange(b.start_date, b.end_date))
+        order by b.id
+    loop
+        update bookings
+        set status = 'REJECTED'
+        where id = waiting.id
+          and exists (select 1
+                      from bookings other
+                      where other.item_id = waiting.item_id
+                        and other.id <> waiting.id
+                        and (other.status = 'APPROVED' or (other.status = 'WAITING' and other.id < waiting.id))
+                        and tsrange(other.start_date, other.end_date) && tsrange(waiting.start_date, waiting.end_date));
+    end loop;
+
+    select a.id as first_id, b.id as second_id, a.item_id
+    into conflict
+    from bookings a
+             join bookings b on b.item_id = a.item_id and b.id > a.id
+    where a.status = 'APPROVED'
+      and b.status = 'APPROVED'
+      and tsrange(a.start_date, a.end_date) && tsrange(b.start_date, b.end_date)
+    limit 1;
+    if found then
+        raise exception 'Подтверждённые бронирования % и % вещи % пересекаются по времени', conflict.first_id, conflict.second_id, conflict.item_id
+            using hint = 'Отмените одно из них (status = ''CANCELED'') и запустите приложение снова.';
+    end if;
+end $$;
+
+alter table bookings add constraint bookings_item_period_excl
+    exclude using gist (item_id with =, tsrange(start_date, end_date) with &&)
+    where (status in ('WAITING', 'APPROVED'));
@@ -0,0 +1,7 @@
+-- id вещей выдаёт последовательность с шагом 50: Hibernate резервирует блок id одним nextval
+-- и может отправлять вставки пачками (с IDENTITY пакетная вставка отключается).
+create sequence items_seq increment by 50 owned by items.id;
+select setval('items_seq', (select coalesce(max(id), 0) + 1 from items), false);
+
+alter table items alter column id drop identity;
+alter table items alter column id set default nextval('items_seq');
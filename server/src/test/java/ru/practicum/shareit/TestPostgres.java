@@ -0,0 +1,84 @@
+package ru.practicum.shareit;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PostgreSQL для тестов того, чего нет в H2: tsvector, GIN и exclude-ограничений.
+ * Сервер один на все тесты, каждому тесту - своя пустая база. PostgreSQL не запускается
+ * от root, поэтому под root такие тесты пропускаются.
+ */
+public final class TestPostgres {
+    private static final List<String> UTF8_LOCALES = List.of("C.UTF-8", "en_US.UTF-8");
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+    private static EmbeddedPostgres postgres;
+
+    private TestPostgres() {
+    }
+
+    public static synchronized String createDatabase() {
+        Assumptions.assumeFalse("root".equals(System.getProperty("user.name")),
+                "PostgreSQL не запускается от root");
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(TestPostgres::stop));
+        }
+        String name = "shareit_" + DATABASES.incrementAndGet();
+        JdbcTemplate jdbc = new JdbcTemplate(postgres.getPostgresDatabase());
+        // initdb берёт локаль C, в которой to_tsvector и lower не меняют регистр кириллицы;
+        // рабочие базы создаются с UTF-8 локалью, её имя зависит от ОС
+        for (String locale : UTF8_LOCALES) {
+            try {
+                jdbc.execute("create database " + name + " template template0 encoding 'UTF8' " +
+                        "lc_collate '" + locale + "' lc_ctype '" + locale + "'");
+                return name;
+            } catch (DataAccessException e) {
+                // такой локали в ОС нет - пробуем следующую
+            }
+        }
+        jdbc.execute("create database " + name);
+        return name;
+    }
+
+    public static String jdbcUrl(String database) {
+        return postgres.getJdbcUrl("postgres", database);
+    }
+
+    public static DataSource dataSource(String database) {
+        return postgres.getDatabase("postgres", database);
+    }
+
+    /**
+     * Миграции приложения до версии target включительно (null - все).
+     */
+    public static MigrateResult migrate(String database, String target) {
+        return Flyway.configure()
+                .dataSource(dataSource(database))
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .target(target == null ? "latest" : target)
+                .load()
+                .migrate();
+    }
+
+    private static synchronized void stop() {
+        try {
+            postgres.close();
+        } catch (IOException ignored) {
+            // JVM всё равно завершается
+        }
+    }
+}
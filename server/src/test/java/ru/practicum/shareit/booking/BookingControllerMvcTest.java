@@ -11,10 +11,12 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingIncomeDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
 import ru.practicum.shareit.booking.dto.SearchStatus;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Status;
@@ -134,7 +136,7 @@ class BookingControllerMvcTest {
     @Test
     @DisplayName("При запросе должен вернуться BookingOutcomeDto")
     void getBookingById_whenUserIsFound_thenReturnBookingOutcomeDto() throws Exception {
-        Mockito.when(bookingService.getBookingById(1L,1L)).thenReturn(booking1);
+        Mockito.when(bookingService.getBookingById(1L,1L)).thenReturn(bookingOutcomeDto);
 
         String result = mvc.perform(get("/bookings/{bookingId}", 1L)
                         .header("X-Sharer-User-Id", 1L))
@@ -186,4 +188,52 @@ class BookingControllerMvcTest {
 
         Assertions.assertEquals(objectMapper.writeValueAsString(dtoList), result);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Получение списка бронирований по курсору")
+    void getBookingsByUser_whenCursorIsPassed_thenReturnPageAfterCursor() throws Exception {
+        List<Booking> bookings = List.of(booking2);
+        BookingCursor after = new BookingCursor(LocalDateTime.of(2030, 1, 1, 10, 0), 7L);
+        Mockito.when(bookingService.getBookings(1L, SearchStatus.PAST, after, 10)).thenReturn(bookings);
+        List<BookingOutcomeDto> dtoList = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
+
+        String result = mvc.perform(get("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state","PAST")
+                        .param("size", "10")
+                        .param("after", "2030-01-01T10:00:00,7"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        Assertions.assertEquals(objectMapper.writeValueAsString(dtoList), result);
+    }
+
+    @Test
+    @DisplayName("При неверном курсоре вернуть ошибку 400")
+    void getBookingsByOwner_whenCursorIsInvalid_thenReturnBadRequest() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("state","ALL")
+                        .param("after", "yesterday"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verifyNoInteractions(bookingService);
+    }
+
+    @Test
+    @DisplayName("При пересечении бронирований вернуть ошибку 409")
+    void saveNewBooking_whenPeriodOverlaps_thenReturnConflict() throws Exception {
+        Mockito.when(bookingService.saveNewBooking(Mockito.any(), Mockito.any(), Mockito.anyLong(), Mockito.anyLong()))
+                .thenThrow(new ConflictException("Вещь уже забронирована на это время."));
+
+        mvc.perform(post("/bookings")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(objectMapper.writeValueAsString(bookingIncomeDto))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict());
+    }
+}
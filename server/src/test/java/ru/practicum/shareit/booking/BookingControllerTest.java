@@ -115,7 +115,7 @@ class BookingControllerTest {
         Long bookingId = 1L;
         BookingOutcomeDto testDto = new BookingOutcomeDto(bookingId, start, end, item1OutcomeDto, bookerDto, booking1.getStatus().name());
 
-        Mockito.when(bookingService.getBookingById(anyLong(), anyLong())).thenReturn(booking1);
+        Mockito.when(bookingService.getBookingById(anyLong(), anyLong())).thenReturn(BookingMapper.toBookingDto(booking1));
 
         BookingOutcomeDto result = bookingController.getBookingById(userId, bookingId);
 
@@ -138,7 +138,7 @@ class BookingControllerTest {
         List<BookingOutcomeDto> bookingOutcomeDtos = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
         Mockito.when(bookingService.getBookings(anyLong(), any(), anyInt(), anyInt())).thenReturn(bookings);
 
-        List<BookingOutcomeDto> result = bookingController.getBookingsByUser(userId, "ALL", from / size, size);
+        List<BookingOutcomeDto> result = bookingController.getBookingsByUser(userId, "ALL", from / size, size, null);
 
         Assertions.assertTrue(bookingOutcomeDtos.size() == result.size() && bookingOutcomeDtos.containsAll(result) && result.containsAll(bookingOutcomeDtos));
     }
@@ -153,7 +153,7 @@ class BookingControllerTest {
         List<BookingOutcomeDto> bookingOutcomeDtos = bookings.stream().map(BookingMapper::toBookingDto).collect(Collectors.toList());
         Mockito.when(bookingService.getBookingsByOwner(anyLong(), any(), anyInt(), anyInt())).thenReturn(bookings);
 
-        List<BookingOutcomeDto> result = bookingController.getBookingsByOwner(userId, "ALL", from / size, size);
+        List<BookingOutcomeDto> result = bookingController.getBookingsByOwner(userId, "ALL", from / size, size, null);
 
         Assertions.assertTrue(bookingOutcomeDtos.size() == result.size() && bookingOutcomeDtos.containsAll(result) && result.containsAll(bookingOutcomeDtos));
 
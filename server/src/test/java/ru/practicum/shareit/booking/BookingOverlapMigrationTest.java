@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking;
+
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.TestPostgres;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * V4 на базе, где пересекающиеся бронирования сохранены до появления ограничения.
+ */
+class BookingOverlapMigrationTest {
+    private final LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private String database;
+    private JdbcTemplate jdbc;
+    private long itemId;
+    private long bookerId;
+
+    @BeforeEach
+    void setUp() {
+        database = TestPostgres.createDatabase();
+        TestPostgres.migrate(database, "3");
+        jdbc = new JdbcTemplate(TestPostgres.dataSource(database));
+        jdbc.update("insert into users (name, email) values ('owner', 'owner@mail.ru'), ('booker', 'booker@mail.ru')");
+        long ownerId = jdbc.queryForObject("select id from users where name = 'owner'", Long.class);
+        bookerId = jdbc.queryForObject("select id from users where name = 'booker'", Long.class);
+        jdbc.update("insert into items (name, description, is_available, owner_id) values ('Дрель', 'Ударная', 'AVAILABLE', ?)",
+                ownerId);
+        itemId = jdbc.queryForObject("select id from items", Long.class);
+    }
+
+    private long book(int fromHour, int toHour, String status) {
+        jdbc.update("insert into bookings (start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, ?)",
+                day.plusHours(fromHour), day.plusHours(toHour), itemId, bookerId, status);
+        return jdbc.queryForObject("select max(id) from bookings", Long.class);
+    }
+
+    private String status(long bookingId) {
+        return jdbc.queryForObject("select status from bookings where id = ?", String.class, bookingId);
+    }
+
+    @Test
+    @DisplayName("Ожидающие бронирования, пересекающиеся с подтверждённым или более ранним ожидающим, отклоняются")
+    void migrate_whenWaitingBookingsOverlap_thenLaterOnesRejected() {
+        long first = book(0, 4, "WAITING");
+        long overlapsFirst = book(2, 6, "WAITING");
+        // пересекался только с отклонённым - остаётся
+        long afterRejected = book(5, 8, "WAITING");
+        long approved = book(10, 14, "APPROVED");
+        long overlapsApproved = book(9, 11, "WAITING");
+        long canceled = book(0, 4, "CANCELED");
+
+        TestPostgres.migrate(database, null);
+
+        Assertions.assertEquals(List.of("WAITING", "REJECTED", "WAITING", "APPROVED", "REJECTED", "CANCELED"),
+                List.of(status(first), status(overlapsFirst), status(afterRejected), status(approved),
+                        status(overlapsApproved), status(canceled)));
+        Assertions.assertThrows(Exception.class, () -> book(1, 2, "WAITING"));
+    }
+
+    @Test
+    @DisplayName("Пересечение подтверждённых бронирований останавливает миграцию с понятной ошибкой")
+    void migrate_whenApprovedBookingsOverlap_thenFailsWithManualStep() {
+        long first = book(0, 4, "APPROVED");
+        long second = book(2, 6, "APPROVED");
+
+        FlywayException e = Assertions.assertThrows(FlywayException.class, () -> TestPostgres.migrate(database, null));
+
+        Assertions.assertTrue(e.getMessage().contains("Подтверждённые бронирования " + first + " и " + second),
+                e.getMessage());
+        Assertions.assertEquals(3, jdbc.queryForObject(
+                "select max(version::int) from flyway_schema_history where success", Integer.class));
+    }
+}
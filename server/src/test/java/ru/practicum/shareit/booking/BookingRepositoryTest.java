@@ -9,13 +9,16 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Status;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,7 +54,7 @@ class BookingRepositoryTest {
                 .build();
         created = LocalDateTime.now();
         start = LocalDateTime.now().plusHours(1);
-        end = LocalDateTime.now().plusDays(10);
+        end = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
         request1 = ItemRequest.builder()
                 .description("request1")
                 .requestor(booker)
@@ -127,7 +130,7 @@ class BookingRepositoryTest {
             entityManager.persist(booking2);
             List<Booking> bookingList = List.of(booking1, booking2);
 
-            List<Booking> result = repository.getBookingByOwner_IdAndStartIsBeforeAndEndAfter(owner.getId(), LocalDateTime.now());
+            List<Booking> result = repository.getBookingByOwner_IdAndStartIsBeforeAndEndAfter(owner.getId(), LocalDateTime.now(), pageable).getContent();
 
             assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
@@ -149,7 +152,7 @@ class BookingRepositoryTest {
         entityManager.persist(booking2);
         List<Booking> bookingList = List.of(booking1, booking2);
 
-        List<Booking> result = repository.getBookingByOwner_IdAndEndBefore(owner.getId(), LocalDateTime.now());
+        List<Booking> result = repository.getBookingByOwner_IdAndEndBefore(owner.getId(), LocalDateTime.now(), pageable).getContent();
 
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
@@ -169,7 +172,7 @@ class BookingRepositoryTest {
         entityManager.persist(booking2);
         List<Booking> bookingList = List.of(booking1, booking2);
 
-        List<Booking> result = repository.getBookingByOwnerIdAndStartAfter(owner.getId(), LocalDateTime.now());
+        List<Booking> result = repository.getBookingByOwnerIdAndStartAfter(owner.getId(), LocalDateTime.now(), pageable).getContent();
 
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
@@ -187,7 +190,7 @@ class BookingRepositoryTest {
         entityManager.persist(booking2);
         List<Booking> bookingList = List.of(booking1, booking2);
 
-        List<Booking> result = repository.getBookingByOwner_IdAndStatus(owner.getId(), ru.practicum.shareit.booking.Status.WAITING);
+        List<Booking> result = repository.getBookingByOwner_IdAndStatus(owner.getId(), ru.practicum.shareit.booking.Status.WAITING, pageable).getContent();
 
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
@@ -211,6 +214,73 @@ class BookingRepositoryTest {
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
 
+    @Test
+    @DisplayName("При запросе вернуть только последнее бронирование каждой вещи")
+    void findLastBookingsForItems() {
+        Booking older = Booking.builder()
+                .start(LocalDateTime.now().minusDays(5))
+                .end(LocalDateTime.now().minusDays(4))
+                .item(item1)
+                .booker(booker)
+                .status(ru.practicum.shareit.booking.Status.APPROVED)
+                .build();
+        booking1.setStart(LocalDateTime.now().minusDays(2));
+        booking1.setEnd(LocalDateTime.now().minusDays(1));
+        booking2.setStart(LocalDateTime.now().minusHours(3));
+        booking2.setEnd(LocalDateTime.now().plusHours(3));
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+        entityManager.persist(older);
+        entityManager.persist(booking1);
+        entityManager.persist(booking2);
+        List<Booking> bookingList = List.of(booking1, booking2);
+
+        List<Booking> result = repository.findLastBookingsForItems(List.of(item1.getId(), item2.getId()),
+                LocalDateTime.now());
+
+        assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
+    }
+
+    @Test
+    @DisplayName("При запросе вернуть ближайшее не отклоненное бронирование каждой вещи")
+    void findNextBookingsForItems() {
+        Booking rejected = Booking.builder()
+                .start(LocalDateTime.now().plusHours(1))
+                .end(LocalDateTime.now().plusHours(2))
+                .item(item1)
+                .booker(booker)
+                .status(ru.practicum.shareit.booking.Status.REJECTED)
+                .build();
+        Booking later = Booking.builder()
+                .start(LocalDateTime.now().plusDays(10))
+                .end(LocalDateTime.now().plusDays(11))
+                .item(item1)
+                .booker(booker)
+                .status(ru.practicum.shareit.booking.Status.APPROVED)
+                .build();
+        booking1.setStart(LocalDateTime.now().plusDays(1));
+        booking1.setEnd(LocalDateTime.now().plusDays(2));
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+        entityManager.persist(rejected);
+        entityManager.persist(later);
+        entityManager.persist(booking1);
+        List<Booking> bookingList = List.of(booking1);
+
+        List<Booking> result = repository.findNextBookingsForItems(List.of(item1.getId(), item2.getId()),
+                LocalDateTime.now());
+
+        assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
+    }
+
     @Test
     @DisplayName("При запросе вернуть список текущих бронирований по bookerId")
     void getBookingForBookerAndStartIsBeforeAndEndAfter() {
@@ -228,7 +298,7 @@ class BookingRepositoryTest {
         entityManager.persist(booking2);
         List<Booking> bookingList = List.of(booking1, booking2);
 
-        List<Booking> result = repository.getBookingForBookerAndStartIsBeforeAndEndAfter(booker.getId(), LocalDateTime.now());
+        List<Booking> result = repository.getBookingForBookerAndStartIsBeforeAndEndAfter(booker.getId(), LocalDateTime.now(), pageable).getContent();
 
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
@@ -250,7 +320,7 @@ class BookingRepositoryTest {
         entityManager.persist(booking2);
         List<Booking> bookingList = List.of(booking1, booking2);
 
-        List<Booking> result = repository.getBookingForBookerAndEndBefore(booker.getId(), LocalDateTime.now());
+        List<Booking> result = repository.getBookingForBookerAndEndBefore(booker.getId(), LocalDateTime.now(), pageable).getContent();
 
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
@@ -270,7 +340,7 @@ class BookingRepositoryTest {
         entityManager.persist(booking2);
         List<Booking> bookingList = List.of(booking1, booking2);
 
-        List<Booking> result = repository.getBookingForBookerIdAndStartAfter(booker.getId(), LocalDateTime.now());
+        List<Booking> result = repository.getBookingForBookerIdAndStartAfter(booker.getId(), LocalDateTime.now(), pageable).getContent();
 
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
@@ -288,7 +358,7 @@ class BookingRepositoryTest {
         entityManager.persist(booking2);
         List<Booking> bookingList = List.of(booking1, booking2);
 
-        List<Booking> result = repository.getBookingForBookerAndStatus(booker.getId(), ru.practicum.shareit.booking.Status.WAITING);
+        List<Booking> result = repository.getBookingForBookerAndStatus(booker.getId(), ru.practicum.shareit.booking.Status.WAITING, pageable).getContent();
 
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
@@ -310,4 +380,115 @@ class BookingRepositoryTest {
 
         assertTrue(bookingList.size() == result.size() && bookingList.containsAll(result) && result.containsAll(bookingList));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Страница по курсору продолжается после бронирования с тем же началом и большим id")
+    void findBookerPageAfter() {
+        start = start.truncatedTo(ChronoUnit.SECONDS);
+        booking1.setStart(start);
+        booking2.setStart(start);
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+        entityManager.persist(booking1);
+        entityManager.persist(booking2);
+
+        List<Booking> first = repository.findBookerPageAfter(booker.getId(), start.plusDays(1), Long.MAX_VALUE,
+                PageRequest.of(0, 1));
+        List<Booking> second = repository.findBookerPageAfter(booker.getId(), first.get(0).getStart(),
+                first.get(0).getId(), PageRequest.of(0, 1));
+        List<Booking> third = repository.findBookerPageAfter(booker.getId(), second.get(0).getStart(),
+                second.get(0).getId(), PageRequest.of(0, 1));
+
+        assertEquals(List.of(booking2), first);
+        assertEquals(List.of(booking1), second);
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Страница по курсору для владельца с фильтром по статусу")
+    void findOwnerStatusPageAfter() {
+        booking1.setStatus(ru.practicum.shareit.booking.Status.REJECTED);
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+        entityManager.persist(booking1);
+        entityManager.persist(booking2);
+
+        List<Booking> result = repository.findOwnerStatusPageAfter(owner.getId(),
+                ru.practicum.shareit.booking.Status.WAITING, start.plusDays(1), Long.MAX_VALUE, pageable);
+
+        assertEquals(List.of(booking2), result);
+    }
+
+    @Test
+    @DisplayName("Бронирования по статусу возвращаются постранично без подсчёта общего количества")
+    void getBookingForBookerAndStatus_whenPageIsSmall_thenReturnSlice() {
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+        entityManager.persist(booking1);
+        entityManager.persist(booking2);
+
+        Slice<Booking> first = repository.getBookingForBookerAndStatus(booker.getId(),
+                ru.practicum.shareit.booking.Status.WAITING, PageRequest.of(0, 1));
+        Slice<Booking> second = repository.getBookingForBookerAndStatus(booker.getId(),
+                ru.practicum.shareit.booking.Status.WAITING, PageRequest.of(1, 1));
+
+        assertEquals(List.of(booking2), first.getContent());
+        assertTrue(first.hasNext());
+        assertEquals(List.of(booking1), second.getContent());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    @DisplayName("Пересечение учитывает только ожидающие и подтверждённые бронирования")
+    void existsOverlapping() {
+        booking2.setItem(item1);
+        booking2.setStatus(ru.practicum.shareit.booking.Status.REJECTED);
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(item1);
+        entityManager.persist(booking1);
+        entityManager.persist(booking2);
+
+        assertTrue(repository.existsOverlapping(item1.getId(), start.plusDays(1), end.plusDays(1)));
+        assertFalse(repository.existsOverlapping(item1.getId(), end, end.plusDays(1)));
+        booking1.setStatus(ru.practicum.shareit.booking.Status.CANCELED);
+        entityManager.flush();
+        assertFalse(repository.existsOverlapping(item1.getId(), start.plusDays(1), end.plusDays(1)));
+    }
+
+    @Test
+    @DisplayName("Проекция бронирования собирается в BookingOutcomeDto, в том числе для вещи без запроса")
+    void findOutcomeById() {
+        item1.setRequest(null);
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(item1);
+        entityManager.persist(booking1);
+        entityManager.flush();
+        entityManager.clear();
+
+        BookingOutcomeDto result = repository.findOutcomeById(booking1.getId()).orElseThrow();
+
+        assertEquals(booking1.getId(), result.getId());
+        assertEquals(item1.getId(), result.getItem().getId());
+        assertTrue(result.getItem().getAvailable());
+        assertEquals(owner.getEmail(), result.getItem().getOwner().getEmail());
+        assertNull(result.getItem().getRequestId());
+        assertEquals(booker.getName(), result.getBooker().getName());
+        assertEquals("WAITING", result.getStatus());
+        assertTrue(repository.findOutcomeById(booking1.getId() + 1).isEmpty());
+    }
+}
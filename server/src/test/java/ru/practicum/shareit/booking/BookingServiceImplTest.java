@@ -7,7 +7,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOutcomeDto;
 import ru.practicum.shareit.booking.dto.SearchStatus;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemService;
@@ -19,10 +25,12 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -36,6 +44,8 @@ class BookingServiceImplTest {
     private UserService userService;
     @Mock
     private ItemService itemService;
+    @Mock
+    private ItemSchedules schedules;
     @Captor
     ArgumentCaptor<Booking> bookingCaptor;
     private User validUser1 = new User(1L, "aa@mail.ru", "Aa");
@@ -56,12 +66,13 @@ class BookingServiceImplTest {
         Long userId = 2L;
         Long itemId = 1L;
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser2);
-        Mockito.when(itemService.getItemById(userId, itemId)).thenReturn(item1);
+        Mockito.when(itemService.getItemForBooking(itemId)).thenReturn(item1);
         Mockito.when(repository.save(any())).thenReturn(booking1);
 
         Booking result = bookingService.saveNewBooking(start, end, itemId, userId);
 
         verify(repository).save(any());
+        verify(schedules).bookingSaved(booking1);
         Assertions.assertEquals(booking1, result);
     }
 
@@ -84,7 +95,7 @@ class BookingServiceImplTest {
         Long userId = 1L;
         Long itemId = 1L;
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser1);
-        Mockito.when(itemService.getItemById(userId, itemId)).thenReturn(item1);
+        Mockito.when(itemService.getItemForBooking(itemId)).thenReturn(item1);
 
         DataNotFoundException exception = Assertions.assertThrows(DataNotFoundException.class,
                 () -> bookingService.saveNewBooking(start, end, itemId, userId));
@@ -99,7 +110,7 @@ class BookingServiceImplTest {
         LocalDateTime start = LocalDateTime.now().plusHours(6);
         LocalDateTime end = LocalDateTime.now();
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser2);
-        Mockito.when(itemService.getItemById(userId, itemId)).thenReturn(item1);
+        Mockito.when(itemService.getItemForBooking(itemId)).thenReturn(item1);
 
         ValidationException exception = Assertions.assertThrows(ValidationException.class,
                 () -> bookingService.saveNewBooking(start, end, itemId, userId));
@@ -112,11 +123,7 @@ class BookingServiceImplTest {
         Long userId = 1L;
         Long bookingId = 1L;
         Boolean approved = true;
-        List<Item> items = new ArrayList<>();
-        items.add(item1);
-        items.add(item2);
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser1);
-        Mockito.when(itemService.getAllItems(userId)).thenReturn(items);
         Mockito.when(repository.findById(any())).thenReturn(Optional.of(booking1));
         Mockito.when(repository.save(any())).thenReturn(booking1);
 
@@ -181,10 +188,8 @@ class BookingServiceImplTest {
         LocalDateTime startTest = LocalDateTime.now();
         LocalDateTime endTest = LocalDateTime.now().plusHours(3);
         Item itemTest = new Item(3L, "itemTest", "descriptionTest", ru.practicum.shareit.item.model.Status.AVAILABLE, validUser1, request1);
-        List<Item> items = List.of(itemTest);
         Booking oldBooking = new Booking(1L, startTest, endTest, itemTest, validUser2, Status.WAITING);
         Mockito.when(userService.getUserById(anyLong())).thenReturn(validUser2);
-        Mockito.when(itemService.getAllItems(any())).thenReturn(items);
         Mockito.when(repository.findById(anyLong())).thenReturn(Optional.of(oldBooking));
 
         bookingService.updateBooking(oldBooking.getId(), validUser2.getId(), false);
@@ -198,15 +203,13 @@ class BookingServiceImplTest {
         Long userId = 1L;
         Long itemId = 1L;
         Long bookingId = 1L;
-        List<Item> items = new ArrayList<>();
-        items.add(item1);
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser1);
-        Mockito.when(repository.findById(itemId)).thenReturn(Optional.of(booking1));
-        Mockito.when(itemService.findItemsByOwnerId(userId)).thenReturn(items);
+        BookingOutcomeDto booking = BookingMapper.toBookingDto(booking1);
+        Mockito.when(repository.findOutcomeById(itemId)).thenReturn(Optional.of(booking));
 
-        Booking result = bookingService.getBookingById(userId, bookingId);
+        BookingOutcomeDto result = bookingService.getBookingById(userId, bookingId);
 
-        Assertions.assertEquals(booking1, result);
+        Assertions.assertEquals(booking, result);
     }
 
     @Test
@@ -249,7 +252,7 @@ class BookingServiceImplTest {
         List<Booking> bookings = List.of(booking1);
         Mockito.when(userService.getUserById(anyLong())).thenReturn(validUser2);
         Mockito.when(repository.getBookingForBookerAndStartIsBeforeAndEndAfter(
-                anyLong(), any())).thenReturn(bookings);
+                anyLong(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookings(userId, SearchStatus.CURRENT, 0, 10);
 
@@ -262,7 +265,7 @@ class BookingServiceImplTest {
         Long userId = 2L;
         List<Booking> bookings = List.of(booking1);
         when(userService.getUserById(anyLong())).thenReturn(validUser2);
-        when(repository.getBookingForBookerAndEndBefore(anyLong(), any())).thenReturn(bookings);
+        when(repository.getBookingForBookerAndEndBefore(anyLong(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookings(userId, SearchStatus.PAST, 0, 10);
 
@@ -275,7 +278,7 @@ class BookingServiceImplTest {
         Long userId = 1L;
         List<Booking> bookings = List.of(booking1);
         when(userService.getUserById(anyLong())).thenReturn(validUser2);
-        when(repository.getBookingForBookerIdAndStartAfter(anyLong(), any())).thenReturn(bookings);
+        when(repository.getBookingForBookerIdAndStartAfter(anyLong(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookings(userId, SearchStatus.FUTURE, 0, 10);
 
@@ -288,7 +291,7 @@ class BookingServiceImplTest {
         Long userId = 1L;
         List<Booking> bookings = List.of(booking1);
         when(userService.getUserById(anyLong())).thenReturn(validUser2);
-        when(repository.getBookingForBookerAndStatus(anyLong(), any())).thenReturn(bookings);
+        when(repository.getBookingForBookerAndStatus(anyLong(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookings(userId, SearchStatus.WAITING, 0, 10);
 
@@ -301,7 +304,7 @@ class BookingServiceImplTest {
         Long userId = 1L;
         List<Booking> bookings = List.of(booking1);
         when(userService.getUserById(anyLong())).thenReturn(validUser2);
-        when(repository.getBookingForBookerAndStatus(anyLong(), any())).thenReturn(bookings);
+        when(repository.getBookingForBookerAndStatus(anyLong(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookings(userId, SearchStatus.REJECTED, 0, 10);
 
@@ -341,7 +344,7 @@ class BookingServiceImplTest {
         Long userId = 1L;
         List<Booking> bookings = List.of(booking1);
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser1);
-        Mockito.when(repository.getBookingByOwner_IdAndStartIsBeforeAndEndAfter(any(), any())).thenReturn(bookings);
+        Mockito.when(repository.getBookingByOwner_IdAndStartIsBeforeAndEndAfter(any(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookingsByOwner(userId, SearchStatus.CURRENT, 0, 10);
 
@@ -357,7 +360,7 @@ class BookingServiceImplTest {
         Booking bookingPast = new Booking(1L, start, end, item1, validUser2, Status.APPROVED);
         List<Booking> bookings = List.of(bookingPast);
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser1);
-        Mockito.when(repository.getBookingByOwner_IdAndEndBefore(any(), any())).thenReturn(bookings);
+        Mockito.when(repository.getBookingByOwner_IdAndEndBefore(any(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookingsByOwner(userId, SearchStatus.PAST, 0, 10);
 
@@ -373,7 +376,7 @@ class BookingServiceImplTest {
         Booking bookingF = new Booking(1L, start, end, item1, validUser2, Status.WAITING);
         List<Booking> bookings = List.of(bookingF);
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser1);
-        Mockito.when(repository.getBookingByOwnerIdAndStartAfter(any(), any())).thenReturn(bookings);
+        Mockito.when(repository.getBookingByOwnerIdAndStartAfter(any(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookingsByOwner(userId, SearchStatus.FUTURE, 0, 10);
 
@@ -389,7 +392,7 @@ class BookingServiceImplTest {
         Booking booking = new Booking(1L, start, end, item1, validUser2, Status.WAITING);
         List<Booking> bookings = List.of(booking);
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser1);
-        Mockito.when(repository.getBookingByOwner_IdAndStatus(any(), any())).thenReturn(bookings);
+        Mockito.when(repository.getBookingByOwner_IdAndStatus(any(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookingsByOwner(userId, SearchStatus.WAITING, 0, 10);
 
@@ -405,7 +408,7 @@ class BookingServiceImplTest {
         Booking booking = new Booking(1L, start, end, item1, validUser2, Status.REJECTED);
         List<Booking> bookings = List.of(booking);
         Mockito.when(userService.getUserById(userId)).thenReturn(validUser1);
-        Mockito.when(repository.getBookingByOwner_IdAndStatus(any(), any())).thenReturn(bookings);
+        Mockito.when(repository.getBookingByOwner_IdAndStatus(any(), any(), any())).thenReturn(new SliceImpl<>(bookings));
 
         List<Booking> result = bookingService.getBookingsByOwner(userId, SearchStatus.REJECTED, 0, 10);
 
@@ -443,14 +446,149 @@ class BookingServiceImplTest {
     }
 
     @Test
-    @DisplayName("При запросе получить список бронирований по id итема")
-    void getBookingsForUser_shouldReturnBookings() {
-        Long itemId = 1L;
+    @DisplayName("Последние бронирования нескольких вещей загружаются одним запросом")
+    void getLastBookings_shouldReturnBookingByItemId() {
+        Booking booking2 = new Booking(2L, start, end, item2, validUser2, Status.APPROVED);
+        List<Long> itemIds = List.of(1L, 2L);
+        Mockito.when(repository.findLastBookingsForItems(any(), any())).thenReturn(List.of(booking1, booking2));
+
+        Map<Long, Booking> result = bookingService.getLastBookings(itemIds);
+
+        verify(repository).findLastBookingsForItems(Mockito.eq(itemIds), any());
+        Assertions.assertEquals(Map.of(1L, booking1, 2L, booking2), result);
+    }
+
+    @Test
+    @DisplayName("Следующие бронирования нескольких вещей загружаются одним запросом")
+    void getNextBookings_shouldReturnBookingByItemId() {
+        List<Long> itemIds = List.of(1L, 2L);
+        Mockito.when(repository.findNextBookingsForItems(any(), any())).thenReturn(List.of(booking1));
+
+        Map<Long, Booking> result = bookingService.getNextBookings(itemIds);
+
+        verify(repository).findNextBookingsForItems(Mockito.eq(itemIds), any());
+        Assertions.assertEquals(Map.of(1L, booking1), result);
+    }
+
+    @Test
+    @DisplayName("Для пустого списка вещей запрос в базу не выполняется")
+    void getLastBookings_whenNoItems_thenReturnEmptyMap() {
+        Assertions.assertTrue(bookingService.getLastBookings(List.of()).isEmpty());
+        Assertions.assertTrue(bookingService.getNextBookings(List.of()).isEmpty());
+
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Получение страницы бронирований пользователя по курсору CURRENT")
+    void getBookings_whenCursorIsPassed_thenUseKeysetQuery() {
+        Long userId = 2L;
+        BookingCursor after = new BookingCursor(start, 5L);
         List<Booking> bookings = List.of(booking1);
-        Mockito.when(repository.findAllByItemId(itemId)).thenReturn(bookings);
+        when(userService.getUserById(userId)).thenReturn(validUser2);
+        when(repository.findBookerCurrentPageAfter(eq(userId), any(), eq(start), eq(5L), any()))
+                .thenReturn(bookings);
 
-        List<Booking> result = bookingService.getBookingsForUser(itemId);
+        List<Booking> result = bookingService.getBookings(userId, SearchStatus.CURRENT, after, 10);
 
-        Assertions.assertTrue(bookings.size() == result.size() && bookings.containsAll(result) && result.containsAll(bookings));
+        Assertions.assertEquals(bookings, result);
+    }
+
+    @Test
+    @DisplayName("Получение страницы бронирований владельца по курсору ALL")
+    void getBookingsByOwner_whenCursorIsPassed_thenUseKeysetQuery() {
+        Long userId = 1L;
+        BookingCursor after = new BookingCursor(start, 5L);
+        List<Booking> bookings = List.of(booking1);
+        when(userService.getUserById(userId)).thenReturn(validUser1);
+        when(repository.findOwnerPageAfter(userId, start, 5L, PageRequest.of(0, 10))).thenReturn(bookings);
+
+        List<Booking> result = bookingService.getBookingsByOwner(userId, SearchStatus.ALL, after, 10);
+
+        Assertions.assertEquals(bookings, result);
+    }
+
+    @Test
+    @DisplayName("Бронирования владельца PAST запрашиваются с учётом from и size")
+    void getBookingsByOwner_whenStatusPAST_thenPassPageRequest() {
+        Long userId = 1L;
+        List<Booking> bookings = List.of(booking1);
+        when(userService.getUserById(userId)).thenReturn(validUser1);
+        when(repository.getBookingByOwner_IdAndEndBefore(eq(userId), any(), eq(PageRequest.of(2, 5))))
+                .thenReturn(new SliceImpl<>(bookings));
+
+        List<Booking> result = bookingService.getBookingsByOwner(userId, SearchStatus.PAST, 2, 5);
+
+        Assertions.assertEquals(bookings, result);
+    }
+
+    @Test
+    @DisplayName("Владелец вещи отклоняет бронирование без загрузки списка своих вещей")
+    void updateBooking_whenOwnerRejects_thenCheckOwnerFromBooking() {
+        Mockito.when(userService.getUserById(validUser1.getId())).thenReturn(validUser1);
+        Mockito.when(repository.findById(booking1.getId())).thenReturn(Optional.of(booking1));
+        Mockito.when(repository.save(any())).thenReturn(booking1);
+
+        bookingService.updateBooking(booking1.getId(), validUser1.getId(), false);
+
+        verify(repository).save(bookingCaptor.capture());
+        Assertions.assertEquals(Status.REJECTED, bookingCaptor.getValue().getStatus());
+        Mockito.verifyNoInteractions(itemService);
+    }
+
+    @Test
+    @DisplayName("Посторонний пользователь не может посмотреть бронирование")
+    void getBookingById_whenUserIsNeitherOwnerNorBooker_thenReturnDataNotFoundException() {
+        User stranger = new User(3L, "cc@mail.ru", "Cc");
+        Mockito.when(userService.getUserById(stranger.getId())).thenReturn(stranger);
+        Mockito.when(repository.findOutcomeById(booking1.getId()))
+                .thenReturn(Optional.of(BookingMapper.toBookingDto(booking1)));
+
+        Assertions.assertThrows(DataNotFoundException.class,
+                () -> bookingService.getBookingById(stranger.getId(), booking1.getId()));
+        Mockito.verifyNoInteractions(itemService);
+    }
+
+    @Test
+    @DisplayName("При пересечении с существующим бронированием вернуть ConflictException")
+    void saveNewBooking_whenPeriodOverlaps_thenReturnConflictException() {
+        Long userId = 2L;
+        Long itemId = 1L;
+        Mockito.when(userService.getUserById(userId)).thenReturn(validUser2);
+        Mockito.when(itemService.getItemForBooking(itemId)).thenReturn(item1);
+        Mockito.when(repository.existsOverlapping(itemId, start, end)).thenReturn(true);
+
+        ConflictException exception = Assertions.assertThrows(ConflictException.class,
+                () -> bookingService.saveNewBooking(start, end, itemId, userId));
+
+        Assertions.assertEquals("Вещь уже забронирована на это время.", exception.getMessage());
+        verify(repository, Mockito.never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Занятость вещи берётся из её расписания")
+    void getAvailability_whenParamIsValid_thenReturnScheduleAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(1);
+        ItemSchedule schedule = new ItemSchedule();
+        schedule.put(new Booking(1L, from.plusHours(1), from.plusHours(2), item1, validUser2, Status.APPROVED));
+        when(itemService.getItemById(2L, 1L)).thenReturn(item1);
+        when(schedules.get(1L)).thenReturn(schedule);
+
+        ItemAvailability result = bookingService.getAvailability(2L, 1L, from, to);
+
+        Assertions.assertEquals(List.of(new ItemAvailability.Period(from.plusHours(1), from.plusHours(2))),
+                result.getBusy());
+        Assertions.assertEquals(2, result.getFree().size());
+    }
+
+    @Test
+    @DisplayName("При пустом периоде вернуть ValidationException")
+    void getAvailability_whenFromIsNotBeforeTo_thenReturnValidationException() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> bookingService.getAvailability(2L, 1L, from, from));
+        Mockito.verifyNoInteractions(schedules);
     }
-}
\ No newline at end of file
+}
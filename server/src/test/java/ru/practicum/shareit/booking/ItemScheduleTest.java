@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+class ItemScheduleTest {
+    private final LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private Booking booking(long id, int fromHour, int toHour, Status status) {
+        return new Booking(id, day.plusHours(fromHour), day.plusHours(toHour), null, null, status);
+    }
+
+    private ItemAvailability.Period period(int fromHour, int toHour) {
+        return new ItemAvailability.Period(day.plusHours(fromHour), day.plusHours(toHour));
+    }
+
+    @Test
+    @DisplayName("Пересекающиеся бронирования объединяются, свободные интервалы - промежутки между ними")
+    void availability_shouldMergeBusyPeriodsAndReturnGaps() {
+        ItemSchedule schedule = new ItemSchedule();
+        schedule.put(booking(1L, 2, 4, Status.APPROVED));
+        schedule.put(booking(2L, 3, 6, Status.WAITING));
+        schedule.put(booking(3L, 8, 9, Status.APPROVED));
+        schedule.put(booking(4L, 10, 11, Status.REJECTED));
+
+        ItemAvailability result = schedule.availability(1L, day, day.plusHours(12));
+
+        Assertions.assertEquals(List.of(period(2, 6), period(8, 9)), result.getBusy());
+        Assertions.assertEquals(List.of(period(0, 2), period(6, 8), period(9, 12)), result.getFree());
+    }
+
+    @Test
+    @DisplayName("Длинное бронирование, начатое до периода, обрезается по его границам")
+    void availability_shouldClipLongBookingStartedBeforePeriod() {
+        ItemSchedule schedule = new ItemSchedule();
+        schedule.put(booking(1L, -48, 5, Status.APPROVED));
+        schedule.put(booking(2L, -3, -1, Status.APPROVED));
+
+        ItemAvailability result = schedule.availability(1L, day, day.plusHours(4));
+
+        Assertions.assertEquals(List.of(period(0, 4)), result.getBusy());
+        Assertions.assertTrue(result.getFree().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Отклонённое бронирование освобождает время")
+    void put_whenBookingRejected_thenRemoveItFromSchedule() {
+        ItemSchedule schedule = new ItemSchedule();
+        schedule.put(booking(1L, 2, 4, Status.WAITING));
+
+        schedule.put(booking(1L, 2, 4, Status.REJECTED));
+
+        ItemAvailability result = schedule.availability(1L, day, day.plusHours(6));
+        Assertions.assertTrue(result.getBusy().isEmpty());
+        Assertions.assertEquals(List.of(period(0, 6)), result.getFree());
+    }
+
+    @Test
+    @DisplayName("Занятость совпадает с полным перебором бронирований при любых длинах и пересечениях")
+    void availability_shouldMatchBruteForce() {
+        Random random = new Random(42);
+        ItemSchedule schedule = new ItemSchedule();
+        List<Booking> active = new ArrayList<>();
+        // длинное бронирование из прошлого: поддеревья с ним не отбрасываются по концу
+        Booking longest = booking(0L, -10_000, 100, Status.APPROVED);
+        schedule.put(longest);
+        active.add(longest);
+        for (long id = 1; id <= 300; id++) {
+            int start = random.nextInt(2000);
+            Booking booking = booking(id, start, start + 1 + random.nextInt(random.nextBoolean() ? 5 : 300),
+                    random.nextInt(4) == 0 ? Status.REJECTED : Status.APPROVED);
+            schedule.put(booking);
+            if (booking.getStatus() == Status.APPROVED) {
+                active.add(booking);
+            }
+        }
+
+        for (int query = 0; query < 500; query++) {
+            int from = random.nextInt(2400) - 200;
+            int to = from + 1 + random.nextInt(100);
+            Assertions.assertEquals(bruteForceBusy(active, day.plusHours(from), day.plusHours(to)),
+                    schedule.availability(1L, day.plusHours(from), day.plusHours(to)).getBusy());
+        }
+    }
+
+    private List<ItemAvailability.Period> bruteForceBusy(List<Booking> bookings, LocalDateTime from, LocalDateTime to) {
+        List<ItemAvailability.Period> busy = new ArrayList<>();
+        bookings.stream()
+                .filter(b -> b.getStart().isBefore(to) && b.getEnd().isAfter(from))
+                .sorted(Comparator.comparing(Booking::getStart))
+                .forEach(b -> {
+                    LocalDateTime start = b.getStart().isBefore(from) ? from : b.getStart();
+                    LocalDateTime end = b.getEnd().isAfter(to) ? to : b.getEnd();
+                    ItemAvailability.Period last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+                    if (last != null && !start.isAfter(last.getEnd())) {
+                        if (end.isAfter(last.getEnd())) {
+                            last.setEnd(end);
+                        }
+                    } else {
+                        busy.add(new ItemAvailability.Period(start, end));
+                    }
+                });
+        return busy;
+    }
+}
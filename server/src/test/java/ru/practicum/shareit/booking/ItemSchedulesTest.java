@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSchedulesTest {
+    @InjectMocks
+    private ItemSchedules schedules;
+    @Mock
+    private BookingRepository repository;
+    private final LocalDateTime day = LocalDateTime.of(2030, 1, 1, 0, 0);
+    private final Item item = Item.builder().id(1L).build();
+    private final Booking booking = new Booking(1L, day.plusHours(2), day.plusHours(4), item, null, Status.WAITING);
+
+    @Test
+    @DisplayName("Бронирование, сохранённое во время загрузки расписания, не теряется")
+    void bookingSaved_whenScheduleIsLoading_thenNextGetSeesBooking() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        Mockito.when(repository.findAllByItemId(1L))
+                .thenAnswer(invocation -> {
+                    // загрузка прочитала базу до фиксации бронирования
+                    loading.countDown();
+                    Assertions.assertTrue(committed.await(5, TimeUnit.SECONDS));
+                    return List.of();
+                })
+                .thenReturn(List.of(booking));
+
+        CompletableFuture<ItemSchedule> load = CompletableFuture.supplyAsync(() -> schedules.get(1L));
+        Assertions.assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Thread save = new Thread(() -> schedules.bookingSaved(booking));
+        save.start();
+        // сохранение либо завершилось, либо ждёт окончания загрузки
+        while (save.getState() == Thread.State.NEW || save.getState() == Thread.State.RUNNABLE) {
+            Thread.sleep(1);
+        }
+        committed.countDown();
+        load.get(5, TimeUnit.SECONDS);
+        save.join(5_000);
+
+        ItemAvailability result = schedules.get(1L).availability(1L, day, day.plusHours(6));
+
+        Assertions.assertEquals(List.of(new ItemAvailability.Period(day.plusHours(2), day.plusHours(4))),
+                result.getBusy());
+    }
+
+    @Test
+    @DisplayName("После сохранения бронирования расписание загружается заново")
+    void bookingSaved_shouldReloadSchedule() {
+        Mockito.when(repository.findAllByItemId(1L)).thenReturn(List.of(), List.of(booking));
+
+        Assertions.assertTrue(schedules.get(1L).availability(1L, day, day.plusHours(6)).getBusy().isEmpty());
+        schedules.bookingSaved(booking);
+
+        Assertions.assertEquals(1, schedules.get(1L).availability(1L, day, day.plusHours(6)).getBusy().size());
+        Mockito.verify(repository, Mockito.times(2)).findAllByItemId(1L);
+    }
+}
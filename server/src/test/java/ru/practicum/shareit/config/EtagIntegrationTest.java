@@ -0,0 +1,81 @@
+package ru.practicum.shareit.config;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class EtagIntegrationTest {
+    private final MockMvc mvc;
+    private final UserRepository userRepository;
+
+    @Test
+    @DisplayName("Повторный запрос с If-None-Match получает 304 без тела")
+    void shouldReturnNotModifiedForMatchingEtag() throws Exception {
+        User user = userRepository.save(User.builder().name("etag").email("etag@mail.ru").build());
+        String etag = etag("/users/" + user.getId());
+
+        mvc.perform(get("/users/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("После изменения данных ETag меняется и ответ приходит целиком")
+    void shouldReturnBodyAfterChange() throws Exception {
+        User user = userRepository.save(User.builder().name("etag2").email("etag2@mail.ru").build());
+        String etag = etag("/users/" + user.getId());
+
+        mvc.perform(patch("/users/{id}", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk());
+
+        String changed = mvc.perform(get("/users/{id}", user.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(changed);
+        Assertions.assertNotEquals(etag, changed);
+    }
+
+    @Test
+    @DisplayName("Списки вещей, бронирований и запросов получают ETag")
+    void shouldAddEtagToLists() throws Exception {
+        User user = userRepository.save(User.builder().name("etag3").email("etag3@mail.ru").build());
+        for (String path : new String[]{"/items", "/bookings", "/bookings/owner", "/requests", "/requests/all"}) {
+            mvc.perform(get(path).header("X-Sharer-User-Id", user.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG));
+        }
+    }
+
+    private String etag(String path) throws Exception {
+        String etag = mvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertNotNull(etag);
+        return etag;
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+class ReadOnlyRoutingDataSourceTest {
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = new DriverManagerDataSource("jdbc:h2:mem:primary");
+        DataSource replica = new DriverManagerDataSource("jdbc:h2:mem:replica");
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadOnlyRoutingDataSource(primary, replica));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    @DisplayName("Транзакция readOnly читает с реплики")
+    void readOnlyTransaction_thenUseReplica() {
+        transactionTemplate.setReadOnly(true);
+
+        String database = transactionTemplate.execute(status -> currentDatabase());
+
+        Assertions.assertEquals("REPLICA", database);
+    }
+
+    @Test
+    @DisplayName("Пишущая транзакция и запрос вне транзакции идут в основную БД")
+    void readWriteTransaction_thenUsePrimary() {
+        String database = transactionTemplate.execute(status -> currentDatabase());
+
+        Assertions.assertEquals("PRIMARY", database);
+        Assertions.assertEquals("PRIMARY", currentDatabase());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select database()", String.class);
+    }
+}
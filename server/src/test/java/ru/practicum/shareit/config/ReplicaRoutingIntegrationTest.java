@@ -0,0 +1,172 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Основная БД и реплика - две независимые базы H2 без репликации между ними, поэтому
+ * по содержимому каждой видно, куда ушли чтение и запись. Реплика "отстаёт", если строку
+ * изменить только в основной БД.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "shareit.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class ReplicaRoutingIntegrationTest {
+    private final MockMvc mvc;
+    private final HikariDataSource primaryDataSource;
+    private final HikariDataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private long userId;
+
+    @BeforeEach
+    void setUp() {
+        Flyway.configure()
+                .dataSource(replicaDataSource.getJdbcUrl(), replicaDataSource.getUsername(), replicaDataSource.getPassword())
+                .locations("classpath:db/migration/common", "classpath:db/migration/h2")
+                .load()
+                .migrate();
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (String table : new String[]{"comments", "bookings", "items", "users"}) {
+            both("delete from " + table);
+        }
+        // пользователь "реплицирован": читающая транзакция найдёт его на реплике
+        both("insert into users (name, email) values ('owner', 'owner@mail.ru')");
+        userId = lastId("users");
+    }
+
+    private void both(String sql, Object... args) {
+        primary.update(sql, args);
+        replica.update(sql, args);
+    }
+
+    private long lastId(String table) {
+        Long id = primary.queryForObject("select max(id) from " + table, Long.class);
+        Assertions.assertEquals(id, replica.queryForObject("select max(id) from " + table, Long.class));
+        return id;
+    }
+
+    private long addItem() {
+        both("insert into items (name, description, is_available, owner_id) values ('Дрель', 'Ударная', 'AVAILABLE', ?)",
+                userId);
+        return lastId("items");
+    }
+
+    private long addBooker() {
+        both("insert into users (name, email) values ('booker', 'booker@mail.ru')");
+        return lastId("users");
+    }
+
+    @Test
+    @DisplayName("Запись после читающей транзакции в том же HTTP-запросе уходит в основную БД")
+    void addItem_afterReadOnlyLookup_thenWrittenToPrimary() throws Exception {
+        mvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Дрель\",\"description\":\"Ударная\",\"available\":true}"))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(1, primary.queryForObject("select count(*) from items", Integer.class));
+        Assertions.assertEquals(0, replica.queryForObject("select count(*) from items", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Подтверждение бронирования проверяет статус по основной БД, а не по отставшей реплике")
+    void approveBooking_whenReplicaStale_thenStatusCheckedOnPrimary() throws Exception {
+        long itemId = addItem();
+        long bookerId = addBooker();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        both("insert into bookings (start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, 'WAITING')",
+                start, start.plusDays(1), itemId, bookerId);
+        long bookingId = lastId("bookings");
+        primary.update("update bookings set status = 'REJECTED' where id = ?", bookingId);
+
+        mvc.perform(patch("/bookings/{id}", bookingId)
+                        .header("X-Sharer-User-Id", userId)
+                        .param("approved", "true"))
+                .andExpect(status().isBadRequest());
+
+        Assertions.assertEquals("REJECTED",
+                primary.queryForObject("select status from bookings where id = ?", String.class, bookingId));
+    }
+
+    @Test
+    @DisplayName("Изменение пользователя не возвращает в основную БД устаревшие поля с реплики")
+    void updateUser_whenReplicaStale_thenOtherFieldsKept() throws Exception {
+        primary.update("update users set email = 'new@mail.ru' where id = ?", userId);
+
+        mvc.perform(patch("/users/{id}", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"renamed\"}"))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals("new@mail.ru",
+                primary.queryForObject("select email from users where id = ?", String.class, userId));
+        Assertions.assertEquals("renamed",
+                primary.queryForObject("select name from users where id = ?", String.class, userId));
+    }
+
+    @Test
+    @DisplayName("Изменение вещи не возвращает в основную БД устаревшие поля с реплики")
+    void updateItem_whenReplicaStale_thenOtherFieldsKept() throws Exception {
+        long itemId = addItem();
+        primary.update("update items set description = 'Аккумуляторная' where id = ?", itemId);
+
+        mvc.perform(patch("/items/{id}", itemId)
+                        .header("X-Sharer-User-Id", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Шуруповёрт\"}"))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals("Аккумуляторная",
+                primary.queryForObject("select description from items where id = ?", String.class, itemId));
+        Assertions.assertEquals(0, replica.queryForObject(
+                "select count(*) from items where name = 'Шуруповёрт'", Integer.class));
+    }
+
+    @Test
+    @DisplayName("Комментарий проверяет бронирование по основной БД: на реплику оно ещё не пришло")
+    void addComment_whenBookingNotReplicated_thenCheckedOnPrimary() throws Exception {
+        long itemId = addItem();
+        long bookerId = addBooker();
+        LocalDateTime start = LocalDateTime.now().minusDays(2);
+        primary.update("insert into bookings (start_date, end_date, item_id, booker_id, status) values (?, ?, ?, ?, 'APPROVED')",
+                start, start.plusDays(1), itemId, bookerId);
+
+        mvc.perform(post("/items/{id}/comment", itemId)
+                        .header("X-Sharer-User-Id", bookerId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\":\"Отличная дрель\"}"))
+                .andExpect(status().isOk());
+
+        Assertions.assertEquals(1, primary.queryForObject("select count(*) from comments", Integer.class));
+        Assertions.assertEquals(0, replica.queryForObject("select count(*) from comments", Integer.class));
+    }
+}
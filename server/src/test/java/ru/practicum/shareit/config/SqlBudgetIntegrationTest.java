@@ -0,0 +1,174 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemSearchEngine;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.Status;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Бюджет SQL-запросов на HTTP-запрос. Данных заведено заметно больше одного элемента на страницу,
+ * поэтому загрузка связанных данных по одному элементу (N+1) сразу выходит за бюджет.
+ */
+@SpringBootTest(properties = {ItemSearchEngine.PROPERTY + "=fulltext", "shareit.sql.sample-rate=1"})
+@SpyBean(ItemRepository.class)
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class SqlBudgetIntegrationTest {
+    private static final int ITEMS = 8;
+
+    private final MockMvc mvc;
+    private final MeterRegistry registry;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.ru").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.ru").build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < ITEMS; i++) {
+            ItemRequest request = itemRequestRepository.save(ItemRequest.builder()
+                    .description("request" + i)
+                    .requestor(booker)
+                    .createdTime(now.minusHours(i))
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("item" + i)
+                    .description("description" + i)
+                    .available(Status.AVAILABLE)
+                    .owner(owner)
+                    .request(request)
+                    .build());
+            bookingRepository.save(new Booking(null, now.minusDays(2).plusMinutes(i), now.minusDays(1),
+                    item, booker, ru.practicum.shareit.booking.Status.APPROVED));
+            bookingRepository.save(new Booking(null, now.plusDays(1).plusMinutes(i), now.plusDays(2),
+                    item, booker, ru.practicum.shareit.booking.Status.WAITING));
+            commentRepository.save(new Comment(null, "comment" + i, item, booker, now.minusHours(1)));
+        }
+    }
+
+    @AfterEach
+    void clear() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("GET /items укладывается в бюджет SQL-запросов")
+    void getItems_withinBudget() throws Exception {
+        long statements = statements(get("/items").header("X-Sharer-User-Id", owner.getId())
+                .param("size", String.valueOf(ITEMS)));
+
+        Assertions.assertTrue(statements <= 5, "SQL-запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("GET /items/{itemId} укладывается в бюджет SQL-запросов")
+    void getItemById_withinBudget() throws Exception {
+        Item item = itemRepository.findByOwnerId(owner.getId()).get(0);
+
+        long statements = statements(get("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId()));
+
+        Assertions.assertTrue(statements <= 5, "SQL-запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("GET /requests/all укладывается в бюджет SQL-запросов")
+    void getAllRequests_withinBudget() throws Exception {
+        long statements = statements(get("/requests/all").header("X-Sharer-User-Id", owner.getId())
+                .param("size", String.valueOf(ITEMS)));
+
+        Assertions.assertTrue(statements <= 3, "SQL-запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("GET /requests укладывается в бюджет SQL-запросов")
+    void getRequests_withinBudget() throws Exception {
+        long statements = statements(get("/requests").header("X-Sharer-User-Id", booker.getId()));
+
+        Assertions.assertTrue(statements <= 3, "SQL-запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("GET /bookings/owner укладывается в бюджет SQL-запросов")
+    void getBookingsByOwner_withinBudget() throws Exception {
+        long statements = statements(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId())
+                .param("size", String.valueOf(2 * ITEMS)));
+
+        Assertions.assertTrue(statements <= 2, "SQL-запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("GET /bookings укладывается в бюджет SQL-запросов")
+    void getBookings_withinBudget() throws Exception {
+        long statements = statements(get("/bookings").header("X-Sharer-User-Id", booker.getId())
+                .param("size", String.valueOf(2 * ITEMS)));
+
+        Assertions.assertTrue(statements <= 2, "SQL-запросов: " + statements);
+    }
+
+    @Test
+    @DisplayName("GET /items/search (fulltext) укладывается в бюджет SQL-запросов")
+    void searchItems_withinBudget() throws Exception {
+        List<Long> ids = itemRepository.findByOwnerId(owner.getId()).stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        // tsvector есть только в PostgreSQL: на H2 подменяется нативный запрос id страницы,
+        // загрузка вещей и их владельцев выполняется как есть
+        Mockito.doReturn(ids).when(itemRepository).searchItemIdsFullText(Mockito.anyString(), Mockito.any());
+
+        long statements = statements(get("/items/search").header("X-Sharer-User-Id", booker.getId())
+                .param("text", "item")
+                .param("size", String.valueOf(ITEMS)));
+
+        Assertions.assertTrue(statements <= 2, "SQL-запросов: " + statements);
+    }
+
+    private long statements(MockHttpServletRequestBuilder request) throws Exception {
+        registry.find("shareit.sql.statements").meters().forEach(registry::remove);
+        mvc.perform(request).andExpect(status().isOk());
+        return (long) registry.get("shareit.sql.statements").summary().totalAmount();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+class SqlMetricsFilterTest {
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlMetricsFilter filter = new SqlMetricsFilter(counter, registry, 3, 3, 1);
+
+    @Test
+    @DisplayName("Число запросов пишется в метрику, повтор одного запроса и превышение бюджета отмечаются")
+    void doFilter_whenStatementRepeats_thenCountNPlusOne() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/items/{itemId}");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                counter.inspect("select * from items where id=?");
+                for (int i = 0; i < 3; i++) {
+                    counter.inspect("select * from users where id=?");
+                }
+            }
+        }));
+
+        Assertions.assertEquals(4, registry.get("shareit.sql.statements")
+                .tag("uri", "/items/{itemId}").summary().totalAmount());
+        Assertions.assertEquals(1, registry.get("shareit.sql.n-plus-one")
+                .tag("method", "GET").counter().count());
+        Assertions.assertEquals(1, registry.get("shareit.sql.budget-exceeded")
+                .tag("uri", "/items/{itemId}").counter().count());
+    }
+
+    @Test
+    @DisplayName("Запросы вне выборки не считаются и в метрику не попадают")
+    void doFilter_whenNotSampled_thenSkipCounting() throws Exception {
+        SqlMetricsFilter unsampled = new SqlMetricsFilter(counter, registry, 3, 3, 0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/1");
+        boolean[] counted = new boolean[1];
+
+        unsampled.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
+                counter.inspect("select * from items where id=?");
+                counted[0] = !counter.finish().isEmpty();
+            }
+        }));
+
+        Assertions.assertFalse(counted[0]);
+        Assertions.assertNull(registry.find("shareit.sql.statements").summary());
+    }
+
+    @Test
+    @DisplayName("Вне HTTP-запроса запросы не считаются")
+    void inspect_whenNotStarted_thenIgnore() {
+        counter.inspect("select 1");
+
+        Assertions.assertTrue(counter.finish().isEmpty());
+    }
+}
@@ -124,4 +124,24 @@ class CommentRepositoryTest {
 
         Assertions.assertTrue(comments.size() == result.size() && comments.containsAll(result) && result.containsAll(comments));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByItemIdIn() {
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+        entityManager.persist(booking1);
+        entityManager.persist(booking2);
+        entityManager.persist(comment1);
+        entityManager.persist(comment2);
+
+        List<Comment> comments = List.of(comment1, comment2);
+
+        List<Comment> result = repository.findAllByItemIdIn(List.of(item1.getId(), item2.getId()));
+
+        Assertions.assertTrue(comments.size() == result.size() && comments.containsAll(result) && result.containsAll(comments));
+    }
+}
@@ -20,6 +20,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.verify;
@@ -143,4 +144,18 @@ class CommentServiceImplTest {
 
         Assertions.assertEquals("Вещь с таким id не найдена", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Комментарии нескольких вещей загружаются одним запросом и группируются по itemId")
+    void getCommentsForItems_shouldGroupCommentsByItemId() {
+        Comment comment2 = new Comment(2L, "nice", item2, validUser2, created2);
+        List<Long> itemIds = List.of(1L, 2L);
+        Mockito.when(repository.findAllByItemIdIn(itemIds)).thenReturn(List.of(comment1, comment2));
+
+        Map<Long, List<Comment>> result = commentService.getCommentsForItems(itemIds);
+
+        verify(repository).findAllByItemIdIn(itemIds);
+        Assertions.assertEquals(List.of(comment1), result.get(1L));
+        Assertions.assertEquals(List.of(comment2), result.get(2L));
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.Status;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FullTextItemSearchEngineTest {
+    @InjectMocks
+    private FullTextItemSearchEngine searchEngine;
+    @Mock
+    private ItemRepository repository;
+    private User validUser1 = new User(1L, "aa@mail.ru", "Aa");
+    private Item item1 = new Item(1L, "Аккумуляторная дрель", "vvv", Status.AVAILABLE, validUser1, null);
+    private Item item2 = new Item(2L, "Дрель", "Дрель дрель", Status.AVAILABLE, validUser1, null);
+
+    @Test
+    @DisplayName("Каждое слово запроса ищется как префикс")
+    void toTsQuery_shouldJoinWordsAsPrefixes() {
+        Assertions.assertEquals("аккум:* & дрел:*", FullTextItemSearchEngine.toTsQuery("АККУМ  дрел"));
+    }
+
+    @Test
+    @DisplayName("Служебные символы tsquery отбрасываются")
+    void toTsQuery_shouldDropTsQueryOperators() {
+        Assertions.assertEquals("drill:* & 18v:*", FullTextItemSearchEngine.toTsQuery("drill & !18v:*"));
+    }
+
+    @Test
+    @DisplayName("Поиск передает запрос и страницу в репозиторий")
+    void search_shouldUseFullTextQuery() {
+        Mockito.when(repository.searchItemIdsFullText("дрел:*", PageRequest.of(1, 5))).thenReturn(List.of(1L));
+        Mockito.when(repository.findAllById(List.of(1L))).thenReturn(List.of(item1));
+
+        List<Item> result = searchEngine.search("дрел", null, null, 1, 5);
+
+        Assertions.assertEquals(List.of(item1), result);
+    }
+
+    @Test
+    @DisplayName("Вещи страницы загружаются одним запросом и сохраняют порядок по ts_rank")
+    void search_shouldLoadPageByIdsInRankOrder() {
+        Mockito.when(repository.searchItemIdsFullText("дрел:*", PageRequest.of(0, 10))).thenReturn(List.of(2L, 1L));
+        Mockito.when(repository.findAllById(List.of(2L, 1L))).thenReturn(List.of(item1, item2));
+
+        List<Item> result = searchEngine.search("дрел", null, null, 0, 10);
+
+        Assertions.assertEquals(List.of(item2, item1), result);
+        verify(repository).findAllById(List.of(2L, 1L));
+    }
+
+    @Test
+    @DisplayName("Пустая страница id не загружает вещи")
+    void search_whenNoIdsFound_thenSkipLoading() {
+        Mockito.when(repository.searchItemIdsFullText("дрел:*", PageRequest.of(3, 10))).thenReturn(List.of());
+        Mockito.when(repository.existsItemFullText("дрел:*")).thenReturn(true);
+
+        List<Item> result = searchEngine.search("дрел", null, null, 3, 10);
+
+        Assertions.assertTrue(result.isEmpty());
+        Mockito.verify(repository, Mockito.never()).findAllById(Mockito.any());
+        Mockito.verify(repository, Mockito.never()).searchItem(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Если по префиксам ничего не нашлось, текст ищется как подстрока")
+    void search_whenNoPrefixMatches_thenSearchSubstring() {
+        PageRequest page = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "id"));
+        Mockito.when(repository.searchItemIdsFullText("рель:*", PageRequest.of(0, 10))).thenReturn(List.of());
+        Mockito.when(repository.existsItemFullText("рель:*")).thenReturn(false);
+        Mockito.when(repository.searchItem("рель", page)).thenReturn(new PageImpl<>(List.of(item1, item2)));
+
+        List<Item> result = searchEngine.search("рель", null, null, 0, 10);
+
+        Assertions.assertEquals(List.of(item1, item2), result);
+    }
+
+    @Test
+    @DisplayName("Запрос без слов не выполняется")
+    void search_whenNoWords_thenReturnEmptyList() {
+        List<Item> result = searchEngine.search("&|!", null, null, 0, 10);
+
+        Assertions.assertTrue(result.isEmpty());
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("Поиск с периодом исключает вещи, занятые в этот период")
+    void search_whenPeriodIsSet_thenUseAntiJoinQuery() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        Mockito.when(repository.searchFreeItemIdsFullText("дрел:*", start, end, PageRequest.of(0, 10)))
+                .thenReturn(List.of(1L));
+        Mockito.when(repository.findAllById(List.of(1L))).thenReturn(List.of(item1));
+
+        List<Item> result = searchEngine.search("дрел", start, end, 0, 10);
+
+        Assertions.assertEquals(List.of(item1), result);
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.TestPostgres;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.Status;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Запросы полнотекстового поиска на PostgreSQL: колонка search_vector (V3), GIN индекс и
+ * переход к поиску подстроки, когда по префиксам ничего не нашлось.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class FullTextSearchPostgresTest {
+    private static String database;
+
+    private final TestEntityManager entityManager;
+    private final ItemRepository repository;
+    private final JdbcTemplate jdbc;
+
+    private FullTextItemSearchEngine searchEngine;
+    private User owner;
+    private Item cordless;
+    private Item hammer;
+    private Item saw;
+
+    @BeforeAll
+    static void createDatabase() {
+        database = TestPostgres.createDatabase();
+    }
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> TestPostgres.jdbcUrl(database));
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new FullTextItemSearchEngine(repository);
+        owner = entityManager.persist(User.builder().name("owner").email("owner@mail.ru").build());
+        cordless = entityManager.persist(new Item(null, "Аккумуляторная дрель", "Два аккумулятора",
+                Status.AVAILABLE, owner, null));
+        hammer = entityManager.persist(new Item(null, "Дрель", "Ударная дрель, дрель-миксер",
+                Status.AVAILABLE, owner, null));
+        saw = entityManager.persist(new Item(null, "Пила", "Циркулярная", Status.AVAILABLE, owner, null));
+        entityManager.persist(new Item(null, "Дрель", "Сломана", Status.UNAVAILABLE, owner, null));
+        entityManager.flush();
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("Слова запроса ищутся как префиксы слов названия и описания, чаще встречающиеся выше")
+    void searchItemIdsFullText_shouldMatchWordPrefixesByRank() {
+        List<Long> drills = repository.searchItemIdsFullText("дрел:*", PageRequest.of(0, 10));
+        List<Long> both = repository.searchItemIdsFullText("аккум:* & дрел:*", PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(hammer.getId(), cordless.getId()), drills);
+        Assertions.assertEquals(List.of(cordless.getId()), both);
+    }
+
+    @Test
+    @DisplayName("Поиск с периодом не возвращает вещи с пересекающимся бронированием")
+    void searchFreeItemIdsFullText_shouldSkipBookedItems() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        User booker = entityManager.persist(User.builder().name("booker").email("booker@mail.ru").build());
+        entityManager.persist(new Booking(null, start, start.plusDays(2), cordless, booker,
+                ru.practicum.shareit.booking.Status.APPROVED));
+        entityManager.flush();
+
+        List<Long> busy = repository.searchFreeItemIdsFullText("дрел:*", start.plusDays(1), start.plusDays(3),
+                PageRequest.of(0, 10));
+        List<Long> free = repository.searchFreeItemIdsFullText("дрел:*", start.plusDays(2), start.plusDays(3),
+                PageRequest.of(0, 10));
+
+        Assertions.assertEquals(List.of(hammer.getId()), busy);
+        Assertions.assertEquals(2, free.size());
+    }
+
+    @Test
+    @DisplayName("Часть слова из середины находится поиском подстроки, префикс - только индексом")
+    void search_whenOnlyInfixMatches_thenSubstringSearch() {
+        Assertions.assertFalse(repository.existsItemFullText("рель:*"));
+        Assertions.assertEquals(List.of(cordless.getId(), hammer.getId()),
+                ids(searchEngine.search("рель", null, null, 0, 10)));
+        Assertions.assertEquals(List.of(saw.getId()), ids(searchEngine.search("пил", null, null, 0, 10)));
+        Assertions.assertTrue(searchEngine.search("дрел", null, null, 1, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Запрос по префиксу может выполняться через GIN индекс по search_vector")
+    void searchItemIdsFullText_shouldUseGinIndex() {
+        // на нескольких строках последовательное чтение дешевле, планировщику запрещаем его в этой транзакции
+        jdbc.execute("set local enable_seqscan = off");
+
+        String plan = String.join("\n", jdbc.queryForList("explain select i.id from items as i " +
+                "where i.search_vector @@ to_tsquery('simple', 'дрел:*') and i.is_available = 'AVAILABLE' " +
+                "order by ts_rank(i.search_vector, to_tsquery('simple', 'дрел:*')) desc, i.id limit 10", String.class));
+
+        Assertions.assertTrue(plan.contains("Bitmap Index Scan on items_search_vector_idx"), plan);
+    }
+}
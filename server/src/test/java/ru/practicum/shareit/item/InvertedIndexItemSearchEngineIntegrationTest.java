@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemIncomeDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@SpringBootTest(properties = ItemSearchEngine.PROPERTY + "=index")
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class InvertedIndexItemSearchEngineIntegrationTest {
+    private final InvertedIndexItemSearchEngine searchEngine;
+    private final ItemService itemService;
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private User requestor;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner@mail.ru", "owner"));
+        requestor = userRepository.save(new User(null, "requestor@mail.ru", "requestor"));
+    }
+
+    @AfterEach
+    void clear() {
+        itemRepository.findAll().forEach(item -> searchEngine.itemDeleted(item.getId()));
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Вещи, добавленные в откаченной транзакции, в индекс не попадают")
+    void addNewItems_whenTransactionRolledBack_thenIndexUnchanged() {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemService.addNewItems(owner.getId(), List.of(
+                    new ItemIncomeDto("Дрель", "Ударная дрель", true, null),
+                    new ItemIncomeDto("Дрель", "Аккумуляторная", true, null)));
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertArrayEquals(new long[0], searchEngine.find("дрель"));
+    }
+
+    @Test
+    @DisplayName("Вещи попадают в индекс после фиксации транзакции")
+    void addNewItems_whenCommitted_thenIndexed() {
+        List<Item> items = itemService.addNewItems(owner.getId(), List.of(
+                new ItemIncomeDto("Дрель", "Ударная дрель", true, null)));
+
+        Assertions.assertArrayEquals(new long[]{items.get(0).getId()}, searchEngine.find("дрель"));
+    }
+
+    @Test
+    @DisplayName("Удаление пользователя убирает из индекса его вещи и ответы на его запросы")
+    void deleteUser_shouldRemoveCascadedItemsFromIndex() {
+        User other = userRepository.save(new User(null, "other@mail.ru", "other"));
+        ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "Нужна дрель", requestor, LocalDateTime.now()));
+        Item owned = itemService.addNewItem(owner.getId(), "Дрель", "Ударная дрель", true, null);
+        Item answer = itemService.addNewItem(other.getId(), "Дрель", "На запрос", true, request.getId());
+        Item kept = itemService.addNewItem(other.getId(), "Дрель", "Своя", true, null);
+
+        userService.deleteUserById(owner.getId());
+        Assertions.assertArrayEquals(new long[]{answer.getId(), kept.getId()}, searchEngine.find("дрель"));
+
+        userService.deleteUserById(requestor.getId());
+        Assertions.assertArrayEquals(new long[]{kept.getId()}, searchEngine.find("дрель"));
+        Assertions.assertTrue(itemRepository.findById(owned.getId()).isEmpty());
+    }
+}
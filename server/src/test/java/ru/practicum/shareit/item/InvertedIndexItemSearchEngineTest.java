@@ -0,0 +1,98 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.Status;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class InvertedIndexItemSearchEngineTest {
+    @InjectMocks
+    private InvertedIndexItemSearchEngine searchEngine;
+    @Mock
+    private ItemRepository repository;
+    @Mock
+    private BookingRepository bookingRepository;
+    private User validUser1 = new User(1L, "aa@mail.ru", "Aa");
+    private Item item1 = new Item(1L, "Аккумуляторная дрель", "Дрель с аккумулятором", Status.AVAILABLE, validUser1, null);
+    private Item item2 = new Item(2L, "Дрель", "Ударная дрель", Status.AVAILABLE, validUser1, null);
+    private Item item3 = new Item(3L, "Отвертка", "Крестовая", Status.AVAILABLE, validUser1, null);
+    private Item item4 = new Item(4L, "Дрель", "Сломана", Status.UNAVAILABLE, validUser1, null);
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(repository.findAll()).thenReturn(List.of(item1, item2, item3, item4));
+        searchEngine.build();
+    }
+
+    @Test
+    @DisplayName("Слова запроса ищутся как префиксы, недоступные вещи не индексируются")
+    void find_shouldMatchPrefixesOfAvailableItems() {
+        Assertions.assertArrayEquals(new long[]{1L, 2L}, searchEngine.find("ДРЕЛ"));
+        Assertions.assertArrayEquals(new long[]{1L}, searchEngine.find("дрель аккум"));
+        Assertions.assertArrayEquals(new long[0], searchEngine.find("пила"));
+        Assertions.assertArrayEquals(new long[0], searchEngine.find("!!"));
+    }
+
+    @Test
+    @DisplayName("Страница выбирается в памяти, из базы загружаются только ее вещи")
+    void search_shouldLoadOnlyRequestedPage() {
+        Mockito.when(repository.findAllById(List.of(2L))).thenReturn(List.of(item2));
+
+        List<Item> result = searchEngine.search("дрель", null, null, 1, 1);
+
+        verify(repository).findAllById(List.of(2L));
+        Assertions.assertEquals(List.of(item2), result);
+    }
+
+    @Test
+    @DisplayName("Страница за пределами результатов - пустой список без запроса в базу")
+    void search_whenPageOutOfRange_thenReturnEmptyList() {
+        List<Item> result = searchEngine.search("дрель", null, null, 5, 10);
+
+        Assertions.assertTrue(result.isEmpty());
+        Mockito.verify(repository, Mockito.never()).findAllById(Mockito.any());
+    }
+
+    @Test
+    @DisplayName("Индекс обновляется при изменении и удалении вещи")
+    void itemSavedAndDeleted_shouldUpdateIndex() {
+        searchEngine.itemSaved(new Item(3L, "Дрель-шуруповерт", "Крестовая", Status.AVAILABLE, validUser1, null));
+        Assertions.assertArrayEquals(new long[]{1L, 2L, 3L}, searchEngine.find("дрель"));
+        Assertions.assertArrayEquals(new long[0], searchEngine.find("отвертка"));
+
+        searchEngine.itemSaved(new Item(2L, "Дрель", "Ударная дрель", Status.UNAVAILABLE, validUser1, null));
+        Assertions.assertArrayEquals(new long[]{1L, 3L}, searchEngine.find("дрель"));
+
+        searchEngine.itemDeleted(1L);
+        Assertions.assertArrayEquals(new long[]{3L}, searchEngine.find("дрель"));
+        Assertions.assertArrayEquals(new long[0], searchEngine.find("аккумуляторная"));
+    }
+
+    @Test
+    @DisplayName("Занятые в период вещи отсеиваются до выбора страницы")
+    void search_whenPeriodIsSet_thenSkipBusyItems() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime end = start.plusDays(1);
+        Mockito.when(bookingRepository.findBusyItemIds(List.of(1L, 2L), start, end)).thenReturn(List.of(1L));
+        Mockito.when(repository.findAllById(List.of(2L))).thenReturn(List.of(item2));
+
+        List<Item> result = searchEngine.search("дрель", start, end, 0, 10);
+
+        Assertions.assertEquals(List.of(item2), result);
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.ItemAvailability;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
@@ -20,6 +21,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -63,14 +65,28 @@ class ItemControllerMvcTest {
         List<Item> items = new ArrayList<>();
         items.add(item1);
         items.add(item2);
+        Comment comment1 = new Comment(1L, "super", item2, validUser2, created2);
         Mockito.when(this.itemService.getItems(1L, 0, 10)).thenReturn(items);
+        Mockito.when(this.bookingService.getLastBookings(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, booking1));
+        Mockito.when(this.bookingService.getNextBookings(List.of(1L, 2L)))
+                .thenReturn(Map.of(1L, booking2));
+        Mockito.when(this.commentService.getCommentsForItems(List.of(1L, 2L)))
+                .thenReturn(Map.of(2L, List.of(comment1)));
 
         mvc.perform(
                         get("/items")
                                 .header("X-Sharer-User-Id", 1L)
                 )
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.[0].lastBooking.id").value(1))
+                .andExpect(jsonPath("$.[0].nextBooking.id").value(2))
+                .andExpect(jsonPath("$.[0].comments.length()").value(0))
+                .andExpect(jsonPath("$.[1].lastBooking").isEmpty())
+                .andExpect(jsonPath("$.[1].comments.[0].text").value("super"));
+
+        Mockito.verify(this.commentService, Mockito.never()).getComments(anyLong());
     }
 
     @Test
@@ -102,6 +118,39 @@ class ItemControllerMvcTest {
 
     }
 
+    @Test
+    @DisplayName("Пакетное добавление возвращает список ItemOutcomeDto")
+    void addBatch_shouldReturnItemOutcomeDtos() throws Exception {
+        Item item2 = new Item(2L, "дрель", "ddd", Status.AVAILABLE, validUser1, null);
+        Mockito.when(this.itemService.addNewItems(eq(1L), anyList())).thenReturn(List.of(item1, item2));
+
+        mvc.perform(
+                post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[{\"name\": \"перфоратор\", \"description\": \"vvv\", \"available\": true, \"requestId\": 1}," +
+                                "{\"name\": \"дрель\", \"description\": \"ddd\", \"available\": true}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].requestId").value(1))
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(jsonPath("$[1].requestId").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Пакет, в котором у вещи не указана доступность, отклоняется целиком с кодом 400")
+    void addBatch_whenElementInvalid_thenBadRequest() throws Exception {
+        mvc.perform(
+                post("/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L)
+                        .content("[{\"name\": \"перфоратор\", \"description\": \"vvv\", \"available\": true}," +
+                                "{\"name\": \"дрель\", \"description\": \"ddd\"}]"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(itemService, Mockito.never()).addNewItems(any(), anyList());
+    }
+
     @Test
     @DisplayName("При запросе существующего пользователя должен вернуться ItemOutcomeDto")
     void updateItem_whenUserFound_thenReturnItemOutcomeDto() throws Exception {
@@ -148,15 +197,13 @@ class ItemControllerMvcTest {
     @Test
     @DisplayName("При запросе должен вернуться ItemOutcomeInfoDto")
     void getItemById_shouldReturnItemOutcomeInfoDto() throws Exception {
-        List<Booking> bookings = new ArrayList<>();
-        bookings.add(booking1);
-        bookings.add(booking2);
         List<Comment> comments = new ArrayList<>();
         Comment comment1 = new Comment(1L, "super", item1, validUser2, created2);
         comments.add(comment1);
 
         Mockito.when(this.itemService.userIsOwnerOfItem(1L, 1L)).thenReturn(true);
-        Mockito.when(this.bookingService.getBookingsForUser(1L)).thenReturn(bookings);
+        Mockito.when(this.bookingService.getLastBookings(List.of(1L))).thenReturn(Map.of(1L, booking1));
+        Mockito.when(this.bookingService.getNextBookings(List.of(1L))).thenReturn(Map.of(1L, booking2));
         Mockito.when(this.commentService.getComments(1L)).thenReturn(comments);
         Mockito.when(this.itemService.getItemById(1L, 1L)).thenReturn(item1);
 
@@ -206,7 +253,7 @@ class ItemControllerMvcTest {
         items.add(item1);
         items.add(item2);
 
-        Mockito.when(this.itemService.searchItem(text, from / size, size)).thenReturn(items);
+        Mockito.when(this.itemService.searchItem(text, null, null, from / size, size)).thenReturn(items);
 
         mvc.perform(get("/items/search")
                         .header("X-Sharer-User-Id", 1)
@@ -251,4 +298,25 @@ class ItemControllerMvcTest {
                 .andExpect(jsonPath("$.authorName").value("Bb"))
                 .andExpect(jsonPath("$.created").value("2024-03-01T14:00:00"));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("При запросе занятости вернуть занятые и свободные интервалы")
+    void getAvailability_shouldReturnItemAvailabilityDto() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 0, 0);
+        ItemAvailability availability = new ItemAvailability(1L, from, to,
+                List.of(new ItemAvailability.Period(from.plusHours(1), from.plusHours(2))),
+                List.of(new ItemAvailability.Period(from, from.plusHours(1)),
+                        new ItemAvailability.Period(from.plusHours(2), to)));
+        Mockito.when(bookingService.getAvailability(1L, 1L, from, to)).thenReturn(availability);
+
+        mvc.perform(get("/items/{itemId}/availability", 1L)
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-02T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.busy[0].start").value("2030-01-01T01:00:00"))
+                .andExpect(jsonPath("$.free.length()").value(2));
+    }
+}
@@ -23,6 +23,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.verify;
 
@@ -81,15 +82,14 @@ class ItemControllerTest {
     @Test
     @DisplayName("При запросе вызывается сервис и возвращвется ItemOutcomeInfoDto")
     void getItemById_thenUseServiceAndReturnItemOutcomeInfoDto() {
-        List<Booking> bookings = new ArrayList<>();
-        bookings.add(booking1);
         List<Comment> comments = new ArrayList<>();
         Comment comment1 = new Comment(1L, "super", item1, validUser2, created2);
         comments.add(comment1);
 
         Mockito.when(itemService.getItemById(1L, 1L)).thenReturn(item1);
         Mockito.when(itemService.userIsOwnerOfItem(1L, 1L)).thenReturn(true);
-        Mockito.when(bookingService.getBookingsForUser(1L)).thenReturn(bookings);
+        Mockito.when(bookingService.getLastBookings(List.of(1L))).thenReturn(Map.of(1L, booking1));
+        Mockito.when(bookingService.getNextBookings(List.of(1L))).thenReturn(Map.of());
         Mockito.when(this.commentService.getComments(1L)).thenReturn(comments);
 
         UserDto userDto = new UserDto(1L, "aa@mail.ru", "Aa");
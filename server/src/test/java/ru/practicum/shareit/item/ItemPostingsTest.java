@@ -0,0 +1,69 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+class ItemPostingsTest {
+
+    @Test
+    @DisplayName("Id хранятся отсортированными и без повторов")
+    void add_shouldKeepIdsSortedAndUnique() {
+        ItemPostings postings = new ItemPostings();
+
+        postings.add(5L);
+        postings.add(1L);
+        postings.add(3L);
+        postings.add(9L);
+        postings.add(7L);
+        Assertions.assertFalse(postings.add(3L));
+
+        Assertions.assertArrayEquals(new long[]{1L, 3L, 5L, 7L, 9L}, postings.toArray());
+    }
+
+    @Test
+    @DisplayName("Удаление id")
+    void remove_shouldDeleteId() {
+        ItemPostings postings = new ItemPostings();
+        postings.add(1L);
+        postings.add(2L);
+
+        Assertions.assertTrue(postings.remove(1L));
+        Assertions.assertFalse(postings.remove(10L));
+        Assertions.assertArrayEquals(new long[]{2L}, postings.toArray());
+        Assertions.assertTrue(postings.remove(2L));
+        Assertions.assertTrue(postings.isEmpty());
+    }
+
+    private static ItemPostings postings(long... ids) {
+        ItemPostings postings = new ItemPostings();
+        for (long id : ids) {
+            postings.add(id);
+        }
+        return postings;
+    }
+
+    @Test
+    @DisplayName("Объединение и пересечение отсортированных списков")
+    void unionAndIntersect() {
+        long[] left = {1L, 3L, 5L, 8L};
+        long[] right = {2L, 3L, 8L, 10L};
+
+        Assertions.assertArrayEquals(new long[]{1L, 2L, 3L, 5L, 8L, 10L},
+                ItemPostings.union(List.of(postings(left), postings(right))));
+        Assertions.assertArrayEquals(new long[]{3L, 8L}, ItemPostings.intersect(left, right));
+    }
+
+    @Test
+    @DisplayName("Объединение многих списков: результат отсортирован и без повторов")
+    void union_whenManyLists_thenSortedAndUnique() {
+        ItemPostings single = postings(4L, 2L);
+
+        Assertions.assertArrayEquals(new long[0], ItemPostings.union(List.of()));
+        Assertions.assertArrayEquals(new long[]{2L, 4L}, ItemPostings.union(List.of(single)));
+        Assertions.assertArrayEquals(new long[]{1L, 2L, 3L, 4L, 7L, 9L},
+                ItemPostings.union(List.of(postings(9L, 1L), single, postings(3L, 4L), postings(7L, 1L, 9L))));
+    }
+}
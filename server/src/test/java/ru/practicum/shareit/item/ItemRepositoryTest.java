@@ -9,12 +9,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.ActiveProfiles;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Status;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 @ActiveProfiles("test")
@@ -47,7 +51,7 @@ class ItemRepositoryTest {
                 .email("user2@mail.ru")
                 .build();
         start = LocalDateTime.now().plusHours(1);
-        end = LocalDateTime.now().plusDays(5);
+        end = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS);
         request1 = ItemRequest.builder()
                 .description("request1")
                 .requestor(booker)
@@ -191,4 +195,63 @@ class ItemRepositoryTest {
 
         Assertions.assertTrue(items.size() == result.size() && items.containsAll(result) && result.containsAll(items));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Поиск с периодом не возвращает вещи с пересекающимся бронированием")
+    void searchFreeItem() {
+        item2.setDescription(item1.getDescription());
+        booking2.setStatus(ru.practicum.shareit.booking.Status.REJECTED);
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+        entityManager.persist(booking1);
+        entityManager.persist(booking2);
+
+        List<Item> busy = repository.searchFreeItem(item1.getDescription(), start, end, pageable).getContent();
+        List<Item> free = repository.searchFreeItem(item1.getDescription(), end, end.plusDays(1), pageable).getContent();
+
+        Assertions.assertEquals(List.of(item2), busy);
+        Assertions.assertEquals(2, free.size());
+    }
+
+    @Test
+    @DisplayName("Вещи по списку запросов возвращаются одним запросом сразу в виде ItemOutcomeDto")
+    void findItemDtosByRequestIdIn() {
+        entityManager.persist(owner);
+        entityManager.persist(booker);
+        entityManager.persist(request1);
+        entityManager.persist(request2);
+        entityManager.persist(item1);
+        entityManager.persist(item2);
+
+        List<ItemOutcomeDto> result = repository.findItemDtosByRequestIdIn(List.of(request1.getId(), request2.getId()));
+        List<ItemOutcomeDto> onlyFirst = repository.findItemDtosByRequestIdIn(List.of(request1.getId()));
+
+        Assertions.assertEquals(List.of(ItemMapper.toItemDto(item1), ItemMapper.toItemDto(item2)), result);
+        Assertions.assertEquals(List.of(ItemMapper.toItemDto(item1)), onlyFirst);
+    }
+
+    @Test
+    @DisplayName("saveAll выдаёт вещам разные id блоками из последовательности")
+    void saveAll_thenAssignIdsFromSequence() {
+        entityManager.persist(owner);
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            items.add(Item.builder()
+                    .name("item" + i)
+                    .description("description")
+                    .available(Status.AVAILABLE)
+                    .owner(owner)
+                    .build());
+        }
+
+        List<Item> saved = repository.saveAll(items);
+        entityManager.flush();
+
+        Assertions.assertEquals(120, saved.stream().map(Item::getId).distinct().count());
+        Assertions.assertEquals(119, saved.get(119).getId() - saved.get(0).getId());
+    }
+}
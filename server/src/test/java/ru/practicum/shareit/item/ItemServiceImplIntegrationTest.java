@@ -9,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.context.jdbc.Sql;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingServiceImpl;
@@ -26,7 +25,6 @@ import java.time.LocalDateTime;
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureTestDatabase
 @ActiveProfiles("test")
-@Sql(scripts = {"file:src/main/resources/schema.sql"})
 @RequiredArgsConstructor(onConstructor = @__(@Autowired))
 class ItemServiceImplIntegrationTest {
     private final BookingServiceImpl bookingService;
@@ -119,4 +117,14 @@ class ItemServiceImplIntegrationTest {
 
         Assertions.assertThat(itemActual).usingRecursiveComparison().isEqualTo(itemExpcted);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteItem() {
+        userRepository.save(owner);
+        Item item = itemService.addNewItem(owner.getId(), "item1", "description1", true, null);
+
+        itemService.deleteItem(owner.getId(), item.getId());
+
+        Assertions.assertThat(itemRepository.findById(item.getId())).isEmpty();
+    }
+}
@@ -8,6 +8,10 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import ru.practicum.shareit.exception.DataNotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemIncomeDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Status;
 import ru.practicum.shareit.request.ItemRequest;
@@ -18,6 +22,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +38,8 @@ class ItemServiceImplTest {
     private UserService userService;
     @Mock
     private ItemRequestService itemRequestService;
+    @Mock
+    private ItemSearchEngine searchEngine;
     private User validUser1 = new User(1L, "aa@mail.ru", "Aa");
     private User validUser2 = new User(2L, "bb@mail.ru", "Bb");
     private LocalDateTime created = LocalDateTime.of(2024, 02, 29, 12, 0, 0);
@@ -83,6 +90,7 @@ class ItemServiceImplTest {
         Item resultItem = itemService.addNewItem(1L, "перфоратор", "vvv", available, 1L);
 
         Assertions.assertEquals(item1, resultItem);
+        verify(searchEngine).itemSaved(item1);
     }
 
     @Test
@@ -99,11 +107,44 @@ class ItemServiceImplTest {
         Assertions.assertEquals(itemUnavailable, resultItem);
     }
 
+    @Test
+    @DisplayName("Пакетное добавление сохраняет вещи одним saveAll и запрашивает каждый запрос один раз")
+    void addNewItems_thenSaveAllAndIndexEachItem() {
+        List<ItemIncomeDto> dtos = List.of(
+                new ItemIncomeDto("перфоратор", "vvv", true, 1L),
+                new ItemIncomeDto("перфоратор2", "vvv2", false, 1L),
+                new ItemIncomeDto("дрель", "ddd", true, null));
+        Mockito.when(userService.getUserById(1L)).thenReturn(validUser1);
+        Mockito.when(itemRequestService.getRequestById(1L, 1L)).thenReturn(request1);
+        Mockito.when(repository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Item> result = itemService.addNewItems(1L, dtos);
+
+        Assertions.assertEquals(3, result.size());
+        Assertions.assertEquals(Status.UNAVAILABLE, result.get(1).getAvailable());
+        Assertions.assertEquals(request1, result.get(1).getRequest());
+        Assertions.assertNull(result.get(2).getRequest());
+        Assertions.assertEquals(validUser1, result.get(2).getOwner());
+        verify(itemRequestService, Mockito.times(1)).getRequestById(1L, 1L);
+        verify(searchEngine, Mockito.times(3)).itemSaved(any());
+    }
+
     @Test
     void deleteItem_thenUserRepository() {
+        Mockito.when(repository.deleteByUserIdAndItemId(1L, 1L)).thenReturn(1);
+
         itemService.deleteItem(1L, 1L);
 
         verify(repository).deleteByUserIdAndItemId(1L, 1L);
+        verify(searchEngine).itemDeleted(1L);
+    }
+
+    @Test
+    @DisplayName("Чужая вещь не удаляется и остается в поисковом индексе")
+    void deleteItem_whenNothingDeleted_thenSearchIndexUntouched() {
+        itemService.deleteItem(2L, 1L);
+
+        Mockito.verifyNoInteractions(searchEngine);
     }
 
     @Test
@@ -117,6 +158,7 @@ class ItemServiceImplTest {
         Item result = itemService.updateItem(userId, 1L, "перфоратор", "vvv", available);
 
         Assertions.assertEquals(item1, result);
+        verify(searchEngine).itemSaved(item1);
     }
 
     @Test
@@ -220,14 +262,12 @@ class ItemServiceImplTest {
         String text = "перфоратор";
         int from = 0;
         int size = 10;
-        Page mockPage = Mockito.mock(Page.class);
         List<Item> items = new ArrayList<>();
         items.add(item1);
         items.add(item2);
-        Mockito.when(mockPage.getContent()).thenReturn(items);
-        Mockito.when(repository.searchItem(eq(text), any())).thenReturn(mockPage);
+        Mockito.when(searchEngine.search(text, null, null, from, size)).thenReturn(items);
 
-        List<Item> result = itemService.searchItem(text, from, size);
+        List<Item> result = itemService.searchItem(text, null, null, from, size);
 
         Assertions.assertEquals(2, result.size());
 
@@ -240,8 +280,9 @@ class ItemServiceImplTest {
         int from = 0;
         int size = 10;
 
-        List<Item> result = itemService.searchItem(text, from, size);
+        List<Item> result = itemService.searchItem(text, null, null, from, size);
         Assertions.assertEquals(0, result.size());
+        Mockito.verifyNoInteractions(searchEngine);
     }
 
     @Test
@@ -254,14 +295,46 @@ class ItemServiceImplTest {
     }
 
     @Test
-    @DisplayName("Вернуть список итемов по id запроса")
-    void findItemsByRequestId_shouldReturnItems() {
-        List<Item> items = new ArrayList<>();
-        items.add(item1);
-        Mockito.when(repository.findAllByRequestId(anyLong())).thenReturn(items);
+    @DisplayName("Вернуть итемы, сгруппированные по id запроса")
+    void findItemsByRequestIds_shouldReturnItemsGroupedByRequest() {
+        List<ItemOutcomeDto> items = new ArrayList<>();
+        items.add(ItemMapper.toItemDto(item1));
+        items.add(ItemMapper.toItemDto(item2));
+        Mockito.when(repository.findItemDtosByRequestIdIn(List.of(1L, 2L))).thenReturn(items);
+
+        Map<Long, List<ItemOutcomeDto>> itemsByRequestId = itemService.findItemsByRequestIds(List.of(1L, 2L));
+
+        Assertions.assertEquals(List.of(ItemMapper.toItemDto(item1)), itemsByRequestId.get(1L));
+        Assertions.assertEquals(List.of(ItemMapper.toItemDto(item2)), itemsByRequestId.get(2L));
+    }
 
-        List<Item> itemsByRequestId = itemService.findItemsByRequestId(1L);
+    @Test
+    @DisplayName("Для пустого списка запросов в репозиторий не обращаться")
+    void findItemsByRequestIds_whenEmpty_thenSkipRepository() {
+        Assertions.assertTrue(itemService.findItemsByRequestIds(List.of()).isEmpty());
+        Mockito.verifyNoInteractions(repository);
+    }
 
-        Assertions.assertEquals(1, itemsByRequestId.size());
+    @Test
+    @DisplayName("При бронировании несуществующей вещи вернуть DataNotFoundException")
+    void getItemForBooking_whenItemNotFound_thenReturnDataNotFoundException() {
+        Mockito.when(repository.findByIdForUpdate(10L)).thenReturn(Optional.empty());
+
+        DataNotFoundException exception = Assertions.assertThrows(DataNotFoundException.class,
+                () -> itemService.getItemForBooking(10L));
+
+        Assertions.assertEquals("Вещь с таким id не найдена.", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("При поиске с неполным или пустым периодом вернуть ValidationException")
+    void searchItem_whenPeriodIsInvalid_thenReturnValidationException() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+        Assertions.assertThrows(ValidationException.class,
+                () -> itemService.searchItem("дрель", start, null, 0, 10));
+        Assertions.assertThrows(ValidationException.class,
+                () -> itemService.searchItem("дрель", start, start, 0, 10));
+        Mockito.verifyNoInteractions(searchEngine);
     }
-}
\ No newline at end of file
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Status;
 import ru.practicum.shareit.user.model.User;
@@ -16,6 +17,8 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -103,7 +106,9 @@ class ItemRequestControllerMvcTest {
         items.add(item1);
         items.add(item2);
 
-        Mockito.when(this.itemService.findItemsByRequestId(1L)).thenReturn(items);
+        Mockito.when(this.itemService.findItemsByRequestIds(List.of(1L))).thenReturn(Map.of(1L, items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList())));
         Mockito.when(this.itemRequestService.getRequestById(1L, 1L)).thenReturn(request1);
 
         mvc.perform(
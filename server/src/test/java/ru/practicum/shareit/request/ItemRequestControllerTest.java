@@ -9,6 +9,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.dto.ItemOutcomeDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.model.Status;
@@ -21,6 +22,8 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
@@ -105,6 +108,20 @@ class ItemRequestControllerTest {
         Assertions.assertEquals(2, allRequests.size());
     }
 
+    @Test
+    @DisplayName("Вещи для всех запросов страницы загружаются одним вызовом и раскладываются по запросам")
+    void getAllRequests_thenLoadItemsForPageOnce() {
+        ItemOutcomeDto item = new ItemOutcomeDto(1L, "item1", "--", true, new UserDto(2L, "bb@mail.ru", "Bb"), 2L);
+        Mockito.when(itemRequestService.getAllRequests(1L, 0, 10)).thenReturn(List.of(request1, request2));
+        Mockito.when(itemService.findItemsByRequestIds(List.of(1L, 2L))).thenReturn(Map.of(2L, List.of(item)));
+
+        List<ItemRequestInfoDto> allRequests = itemRequestController.getAllRequests(1L, 0, 10);
+
+        Assertions.assertTrue(allRequests.get(0).getItems().isEmpty());
+        Assertions.assertEquals(List.of(item), allRequests.get(1).getItems());
+        verify(itemService, Mockito.times(1)).findItemsByRequestIds(any());
+    }
+
     @Test
     @DisplayName("Вызывается сервис")
     void getRequestById_thenUseService() {
@@ -122,7 +139,9 @@ class ItemRequestControllerTest {
         List<Item> items = new ArrayList<>();
         items.add(item1);
         items.add(item2);
-        Mockito.when(itemService.findItemsByRequestId(1L)).thenReturn(items);
+        Mockito.when(itemService.findItemsByRequestIds(List.of(1L))).thenReturn(Map.of(1L, items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList())));
         Mockito.when(itemRequestService.getRequestById(1L, 1L)).thenReturn(request1);
 
         ItemRequestInfoDto result = itemRequestController.getRequestById(1L, 1L);
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static ru.practicum.shareit.config.CacheConfiguration.USERS_CACHE;
+
+@SpringBootTest
+@AutoConfigureTestDatabase
+@ActiveProfiles("test")
+@RequiredArgsConstructor(onConstructor = @__(@Autowired))
+class UserServiceCacheTest {
+    private final UserService userService;
+    private final CacheManager cacheManager;
+    @MockBean
+    private UserRepository repository;
+    private User validUser1 = new User(1L, "aa@mail.ru", "Aa");
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(USERS_CACHE).clear();
+        Mockito.when(repository.findById(1L)).thenReturn(Optional.of(validUser1));
+    }
+
+    @Test
+    @DisplayName("Повторный запрос пользователя не обращается к базе")
+    void getUserById_whenCalledTwice_thenRepositoryCalledOnce() {
+        User first = userService.getUserById(1L);
+        User second = userService.getUserById(1L);
+
+        verify(repository, times(1)).findById(1L);
+        Assertions.assertEquals(validUser1, first);
+        Assertions.assertEquals(validUser1, second);
+    }
+
+    @Test
+    @DisplayName("Изменение полученного пользователя не меняет значение в кэше")
+    void getUserById_whenReturnedUserChanged_thenCachedUserUnchanged() {
+        User first = userService.getUserById(1L);
+        first.setName("Изменён");
+
+        User second = userService.getUserById(1L);
+
+        verify(repository, times(1)).findById(1L);
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals("Aa", second.getName());
+    }
+
+    @Test
+    @DisplayName("После обновления пользователь снова загружается из базы")
+    void updateUser_shouldEvictCachedUser() {
+        Mockito.when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        userService.getUserById(1L);
+
+        userService.updateUser(1L, new User(1L, null, "Bb"));
+        userService.getUserById(1L);
+
+        verify(repository, times(3)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("После удаления пользователь не возвращается из кэша")
+    void deleteUserById_shouldEvictCachedUser() {
+        userService.getUserById(1L);
+
+        userService.deleteUserById(1L);
+
+        Assertions.assertNull(cacheManager.getCache(USERS_CACHE).get(1L));
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exception.DataNotFoundException;
 import ru.practicum.shareit.user.model.User;
 
@@ -16,6 +19,7 @@ import java.util.Optional;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static ru.practicum.shareit.config.CacheConfiguration.USERS_CACHE;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -23,6 +27,10 @@ class UserServiceImplTest {
     private UserServiceImpl userService;
     @Mock
     private UserRepository mockUserRepository;
+    @Mock
+    private ApplicationEventPublisher mockEvents;
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager(USERS_CACHE);
     @Captor
     private ArgumentCaptor<User> userCaptor;
     private User validUser1 = new User(1L, "aa@mail.ru", "Aa");
@@ -140,6 +148,7 @@ class UserServiceImplTest {
     @Test
     void deleteUserById() {
         userService.deleteUserById(1L);
+        verify(mockEvents, times(1)).publishEvent(new UserDeletedEvent(1L));
         verify(mockUserRepository, times(1)).deleteById(1L);
     }
 }
\ No newline at end of file